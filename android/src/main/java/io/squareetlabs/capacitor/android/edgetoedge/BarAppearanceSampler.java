@@ -0,0 +1,337 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.PixelCopy;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.view.Window;
+import androidx.annotation.NonNull;
+
+/**
+ * Picks light or dark bar icons from the web view content drawn beneath the bars.
+ * Sampling only happens after the window drew, at most once per interval. On API 26+ the bar regions are
+ * copied from the window surface with PixelCopy, below that the web view is drawn in software.
+ * The average luminance of a region is compared against two thresholds, so the appearance only flips once
+ * the content is clearly lighter or darker and does not flicker around a single threshold.
+ * The bitmaps, canvas and pixel buffer are allocated once. Must only be used on the UI thread.
+ */
+public class BarAppearanceSampler implements Runnable, ViewTreeObserver.OnDrawListener {
+
+    public interface Listener {
+        /**
+         * @param lightIcons true for light icons (dark content), false for dark icons (light content)
+         */
+        void onStatusBarAppearanceSampled(boolean lightIcons);
+
+        void onNavigationBarAppearanceSampled(boolean lightIcons);
+    }
+
+    public static final long DEFAULT_INTERVAL_MS = 250;
+
+    private static final int SAMPLE_WIDTH = 16;
+    private static final int SAMPLE_HEIGHT = 2;
+
+    // Content darker than this gets light icons, lighter than LIGHT_THRESHOLD gets dark icons
+    private static final float DARK_THRESHOLD = 0.4f;
+    private static final float LIGHT_THRESHOLD = 0.6f;
+
+    // Appearance of a bar that was not sampled yet
+    private static final int UNKNOWN = 0;
+    private static final int LIGHT_ICONS = 1;
+    private static final int DARK_ICONS = 2;
+
+    @NonNull
+    private final Window window;
+
+    @NonNull
+    private final View view;
+
+    @NonNull
+    private final Listener listener;
+
+    // One bitmap per bar, so both pixel copies can be in flight at once
+    @NonNull
+    private final Bitmap statusBarBitmap = Bitmap.createBitmap(SAMPLE_WIDTH, SAMPLE_HEIGHT, Bitmap.Config.ARGB_8888);
+
+    @NonNull
+    private final Bitmap navigationBarBitmap = Bitmap.createBitmap(SAMPLE_WIDTH, SAMPLE_HEIGHT, Bitmap.Config.ARGB_8888);
+
+    @NonNull
+    private final Canvas canvas = new Canvas();
+
+    private final int[] pixels = new int[SAMPLE_WIDTH * SAMPLE_HEIGHT];
+
+    private final int[] location = new int[2];
+
+    @NonNull
+    private final Rect sourceRect = new Rect();
+
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private PixelCopy.OnPixelCopyFinishedListener statusBarCopyListener;
+    private PixelCopy.OnPixelCopyFinishedListener navigationBarCopyListener;
+
+    // Tree observer the draw listener was added to, null while not listening
+    private ViewTreeObserver observer;
+
+    private boolean enabled = false;
+    private boolean paused = false;
+    private boolean scheduled = false;
+    private long intervalMs = DEFAULT_INTERVAL_MS;
+
+    // Whether the window drew since the last sample
+    private boolean dirty = false;
+    private long lastSampleMs = 0;
+    private int pendingCopies = 0;
+
+    // Height of the bar regions of the web view, 0 when the web view is not drawn beneath the bar
+    private int statusBarHeight = 0;
+    private int navigationBarHeight = 0;
+
+    private int statusBarAppearance = UNKNOWN;
+    private int navigationBarAppearance = UNKNOWN;
+
+    public BarAppearanceSampler(@NonNull Window window, @NonNull View view, @NonNull Listener listener) {
+        this.window = window;
+        this.view = view;
+        this.listener = listener;
+    }
+
+    /**
+     * Start or stop sampling
+     * @param intervalMs minimum time between two samples
+     */
+    public void setEnabled(boolean enabled, long intervalMs) {
+        this.enabled = enabled;
+        this.intervalMs = intervalMs;
+        statusBarAppearance = UNKNOWN;
+        navigationBarAppearance = UNKNOWN;
+        dirty = true;
+        update();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Pause sampling while the app is in the background
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        update();
+    }
+
+    /**
+     * Set the height of the web view regions beneath the status bar and the navigation bar
+     */
+    public void setRegions(int statusBarHeight, int navigationBarHeight) {
+        if (statusBarHeight == this.statusBarHeight && navigationBarHeight == this.navigationBarHeight) {
+            return;
+        }
+        this.statusBarHeight = statusBarHeight;
+        this.navigationBarHeight = navigationBarHeight;
+        onDraw();
+    }
+
+    @Override
+    public void onDraw() {
+        dirty = true;
+        if (isActive()) {
+            schedule();
+        }
+    }
+
+    @Override
+    public void run() {
+        scheduled = false;
+        if (!isActive() || !dirty) {
+            return;
+        }
+        if (pendingCopies > 0) {
+            // Sampled again once the pending copies finished
+            return;
+        }
+        dirty = false;
+        lastSampleMs = SystemClock.uptimeMillis();
+        int width = view.getWidth();
+        int height = view.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (statusBarHeight > 0) {
+            sampleStatusBar(0, statusBarHeight, width);
+        }
+        if (navigationBarHeight > 0 && navigationBarHeight < height) {
+            sampleNavigationBar(height - navigationBarHeight, navigationBarHeight, width);
+        }
+    }
+
+    private boolean isActive() {
+        return enabled && !paused;
+    }
+
+    private void update() {
+        if (isActive()) {
+            if (observer == null) {
+                observer = view.getViewTreeObserver();
+                observer.addOnDrawListener(this);
+            }
+            if (dirty) {
+                schedule();
+            }
+        } else {
+            if (observer != null) {
+                // An observer taken before the view was attached is merged into the window's one
+                ViewTreeObserver current = observer.isAlive() ? observer : view.getViewTreeObserver();
+                if (current.isAlive()) {
+                    current.removeOnDrawListener(this);
+                }
+                observer = null;
+            }
+            if (scheduled) {
+                scheduled = false;
+                handler.removeCallbacks(this);
+            }
+        }
+    }
+
+    /**
+     * Sample once the interval since the last sample elapsed
+     */
+    private void schedule() {
+        if (scheduled || pendingCopies > 0) {
+            return;
+        }
+        scheduled = true;
+        long delay = Math.max(0, lastSampleMs + intervalMs - SystemClock.uptimeMillis());
+        handler.postDelayed(this, delay);
+    }
+
+    private void sampleStatusBar(int top, int regionHeight, int width) {
+        if (requestCopy(statusBarBitmap, top, regionHeight, width, true)) {
+            return;
+        }
+        onStatusBarSampled(draw(statusBarBitmap, top, regionHeight, width));
+    }
+
+    private void sampleNavigationBar(int top, int regionHeight, int width) {
+        if (requestCopy(navigationBarBitmap, top, regionHeight, width, false)) {
+            return;
+        }
+        onNavigationBarSampled(draw(navigationBarBitmap, top, regionHeight, width));
+    }
+
+    private void onStatusBarSampled(float luminance) {
+        int appearance = classify(luminance, statusBarAppearance);
+        if (appearance != statusBarAppearance) {
+            statusBarAppearance = appearance;
+            listener.onStatusBarAppearanceSampled(appearance == LIGHT_ICONS);
+        }
+    }
+
+    private void onNavigationBarSampled(float luminance) {
+        int appearance = classify(luminance, navigationBarAppearance);
+        if (appearance != navigationBarAppearance) {
+            navigationBarAppearance = appearance;
+            listener.onNavigationBarAppearanceSampled(appearance == LIGHT_ICONS);
+        }
+    }
+
+    /**
+     * Copy a region of the view from the window surface, scaled into the sample bitmap.
+     * Returns false below API 26 or if the window has no surface to copy from yet.
+     */
+    private boolean requestCopy(@NonNull Bitmap bitmap, int top, int regionHeight, int width, boolean statusBar) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O || window.peekDecorView() == null || !view.isAttachedToWindow()) {
+            return false;
+        }
+        view.getLocationInWindow(location);
+        sourceRect.set(location[0], location[1] + top, location[0] + width, location[1] + top + regionHeight);
+        if (statusBarCopyListener == null) {
+            statusBarCopyListener = result -> onCopyFinished(statusBarBitmap, result, true);
+            navigationBarCopyListener = result -> onCopyFinished(navigationBarBitmap, result, false);
+        }
+        try {
+            PixelCopy.request(window, sourceRect, bitmap, statusBar ? statusBarCopyListener : navigationBarCopyListener, handler);
+        } catch (IllegalArgumentException e) {
+            // No valid surface, e.g. while the window is being recreated
+            return false;
+        }
+        pendingCopies++;
+        return true;
+    }
+
+    private void onCopyFinished(@NonNull Bitmap bitmap, int result, boolean statusBar) {
+        pendingCopies--;
+        if (isActive() && result == PixelCopy.SUCCESS) {
+            float luminance = luminance(bitmap);
+            if (statusBar) {
+                onStatusBarSampled(luminance);
+            } else {
+                onNavigationBarSampled(luminance);
+            }
+        }
+        if (pendingCopies == 0 && dirty && isActive()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Draw a region of the view into the sample bitmap and return its average luminance,
+     * or a negative value if the region is fully transparent
+     */
+    private float draw(@NonNull Bitmap bitmap, int top, int regionHeight, int width) {
+        bitmap.eraseColor(Color.TRANSPARENT);
+        canvas.setBitmap(bitmap);
+        int save = canvas.save();
+        canvas.scale(SAMPLE_WIDTH / (float) width, SAMPLE_HEIGHT / (float) regionHeight);
+        canvas.translate(0, -top);
+        canvas.clipRect(0, top, width, top + regionHeight);
+        view.draw(canvas);
+        canvas.restoreToCount(save);
+        canvas.setBitmap(null);
+        return luminance(bitmap);
+    }
+
+    /**
+     * Average luminance of the sample bitmap, or a negative value if it is fully transparent
+     */
+    private float luminance(@NonNull Bitmap bitmap) {
+        bitmap.getPixels(pixels, 0, SAMPLE_WIDTH, 0, 0, SAMPLE_WIDTH, SAMPLE_HEIGHT);
+        float total = 0f;
+        int count = 0;
+        for (int pixel : pixels) {
+            if (Color.alpha(pixel) == 0) {
+                continue;
+            }
+            total += (0.2126f * Color.red(pixel) + 0.7152f * Color.green(pixel) + 0.0722f * Color.blue(pixel)) / 255f;
+            count++;
+        }
+        return count > 0 ? total / count : -1f;
+    }
+
+    private static int classify(float luminance, int current) {
+        if (luminance < 0f) {
+            return current;
+        }
+        if (current == UNKNOWN) {
+            return luminance < 0.5f ? LIGHT_ICONS : DARK_ICONS;
+        }
+        if (luminance < DARK_THRESHOLD) {
+            return LIGHT_ICONS;
+        }
+        if (luminance > LIGHT_THRESHOLD) {
+            return DARK_ICONS;
+        }
+        return current;
+    }
+}
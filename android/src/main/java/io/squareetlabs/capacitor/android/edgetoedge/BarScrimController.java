@@ -0,0 +1,157 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Build;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import androidx.annotation.NonNull;
+
+/**
+ * Draws the bar colors with overlay views behind the status and navigation bar regions.
+ * Apps targeting Android 15 run edge-to-edge and the platform ignores Window#setStatusBarColor and
+ * Window#setNavigationBarColor there, so the colors are painted by the app instead.
+ * The alpha of a color is applied as a view property, which the render thread updates without a redraw,
+ * and the views declare no overlapping rendering so no offscreen layer is needed for it.
+ * Color changes only invalidate the views; they are only laid out again when the insets change.
+ * Must only be used on the UI thread.
+ */
+public class BarScrimController {
+
+    // Build.VERSION_CODES.VANILLA_ICE_CREAM, not available with compileSdk 34
+    private static final int ANDROID_15 = 35;
+
+    @NonNull
+    private final View statusBarScrim;
+
+    @NonNull
+    private final View navigationBarScrim;
+
+    @NonNull
+    private final ColorDrawable statusBarDrawable = new ColorDrawable(Color.BLACK);
+
+    @NonNull
+    private final ColorDrawable navigationBarDrawable = new ColorDrawable(Color.BLACK);
+
+    private boolean attached = false;
+
+    // System bars insets of the last dispatch
+    private int insetTop;
+    private int insetLeft;
+    private int insetRight;
+    private int insetBottom;
+
+    // Size and gravity currently laid out, to skip redundant layout params updates
+    private int statusBarHeight = -1;
+    private int navigationBarSize = -1;
+    private int navigationBarGravity = Gravity.BOTTOM;
+
+    public BarScrimController(@NonNull Context context) {
+        statusBarScrim = createScrim(context, statusBarDrawable);
+        navigationBarScrim = createScrim(context, navigationBarDrawable);
+    }
+
+    /**
+     * Whether the platform ignores the window bar colors for this app
+     */
+    public static boolean isRequired(@NonNull Context context) {
+        return Build.VERSION.SDK_INT >= ANDROID_15 && context.getApplicationInfo().targetSdkVersion >= ANDROID_15;
+    }
+
+    /**
+     * Add the scrims on top of the content of the given decor view, once
+     */
+    public void attach(@NonNull View decorView) {
+        if (attached || !(decorView instanceof ViewGroup)) {
+            return;
+        }
+        ViewGroup container = (ViewGroup) decorView;
+        container.addView(statusBarScrim, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, Gravity.TOP));
+        container.addView(navigationBarScrim, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, Gravity.BOTTOM));
+        attached = true;
+        layoutScrims();
+    }
+
+    public void setStatusBarColor(int color) {
+        applyColor(statusBarScrim, statusBarDrawable, color);
+    }
+
+    public void setNavigationBarColor(int color) {
+        applyColor(navigationBarScrim, navigationBarDrawable, color);
+    }
+
+    /**
+     * Size the scrims from the system bars insets of a dispatch.
+     * The navigation bar scrim follows the navigation bar to the left or right edge in landscape.
+     */
+    public void updateInsets(int top, int left, int right, int bottom) {
+        insetTop = top;
+        insetLeft = left;
+        insetRight = right;
+        insetBottom = bottom;
+        if (attached) {
+            layoutScrims();
+        }
+    }
+
+    private void layoutScrims() {
+        int top = insetTop;
+        int left = insetLeft;
+        int right = insetRight;
+        int bottom = insetBottom;
+        if (top != statusBarHeight) {
+            statusBarHeight = top;
+            FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) statusBarScrim.getLayoutParams();
+            params.height = top;
+            statusBarScrim.setLayoutParams(params);
+        }
+
+        int gravity;
+        int size;
+        if (bottom > 0 || (left == 0 && right == 0)) {
+            gravity = Gravity.BOTTOM;
+            size = bottom;
+        } else if (right > 0) {
+            gravity = Gravity.RIGHT;
+            size = right;
+        } else {
+            gravity = Gravity.LEFT;
+            size = left;
+        }
+        if (size != navigationBarSize || gravity != navigationBarGravity) {
+            navigationBarSize = size;
+            navigationBarGravity = gravity;
+            boolean vertical = gravity != Gravity.BOTTOM;
+            FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) navigationBarScrim.getLayoutParams();
+            params.width = vertical ? size : ViewGroup.LayoutParams.MATCH_PARENT;
+            params.height = vertical ? ViewGroup.LayoutParams.MATCH_PARENT : size;
+            params.gravity = gravity;
+            navigationBarScrim.setLayoutParams(params);
+        }
+    }
+
+    private static void applyColor(View scrim, ColorDrawable drawable, int color) {
+        int opaque = color | 0xFF000000;
+        if (drawable.getColor() != opaque) {
+            drawable.setColor(opaque);
+        }
+        scrim.setAlpha(Color.alpha(color) / 255f);
+    }
+
+    private static View createScrim(Context context, ColorDrawable drawable) {
+        View scrim = new View(context) {
+            @Override
+            public boolean hasOverlappingRendering() {
+                // A single solid color, so alpha can be applied without an offscreen layer
+                return false;
+            }
+        };
+        scrim.setBackground(drawable);
+        scrim.setAlpha(0f);
+        scrim.setImportantForAccessibility(View.IMPORTANT_FOR_ACCESSIBILITY_NO);
+        return scrim;
+    }
+}
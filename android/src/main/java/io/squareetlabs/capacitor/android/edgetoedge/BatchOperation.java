@@ -0,0 +1,189 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.graphics.Color;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSObject;
+import org.json.JSONObject;
+
+/**
+ * A single operation of an applyBatch call.
+ * Operations are parsed and validated on the bridge thread so that the UI thread only runs
+ * the resulting actions. An operation that failed to parse carries its error and is reported
+ * without being executed.
+ */
+public class BatchOperation {
+
+    interface Action {
+        void run(EdgeToEdge implementation);
+    }
+
+    @NonNull
+    private final String name;
+
+    @Nullable
+    private final Action action;
+
+    @Nullable
+    private final String error;
+
+    private BatchOperation(@NonNull String name, @Nullable Action action, @Nullable String error) {
+        this.name = name;
+        this.action = action;
+        this.error = error;
+    }
+
+    /**
+     * Parse an operation such as { "op": "setStatusBarColor", "color": "#FF000000" }.
+     */
+    @NonNull
+    public static BatchOperation parse(@Nullable JSONObject json) {
+        if (json == null) {
+            return failed("", "operation must be an object");
+        }
+        String name = json.optString("op", "");
+        switch (name) {
+            case "enable":
+                return new BatchOperation(name, EdgeToEdge::enable, null);
+            case "disable":
+                return new BatchOperation(name, EdgeToEdge::disable, null);
+            case "setStatusBarAppearance": {
+                Boolean isLight = getBoolean(json, "light");
+                if (isLight == null) {
+                    return failed(name, "light parameter is required");
+                }
+                return new BatchOperation(name, implementation -> implementation.setStatusBarAppearance(isLight), null);
+            }
+            case "setNavigationBarAppearance": {
+                Boolean isLight = getBoolean(json, "light");
+                if (isLight == null) {
+                    return failed(name, "light parameter is required");
+                }
+                return new BatchOperation(name, implementation -> implementation.setNavigationBarAppearance(isLight), null);
+            }
+            case "setStatusBarColor": {
+                String colorHex = getString(json, "color");
+                if (colorHex == null) {
+                    return failed(name, "color parameter is required");
+                }
+                try {
+                    int color = Color.parseColor(colorHex);
+                    return new BatchOperation(name, implementation -> implementation.setStatusBarColor(color), null);
+                } catch (IllegalArgumentException e) {
+                    return failed(name, "Invalid color format: " + colorHex);
+                }
+            }
+            case "setNavigationBarColor": {
+                String colorHex = getString(json, "color");
+                if (colorHex == null) {
+                    return failed(name, "color parameter is required");
+                }
+                try {
+                    int color = Color.parseColor(colorHex);
+                    return new BatchOperation(name, implementation -> implementation.setNavigationBarColor(color), null);
+                } catch (IllegalArgumentException e) {
+                    return failed(name, "Invalid color format: " + colorHex);
+                }
+            }
+            case "setNavigationBarContrastEnforced": {
+                Boolean enforce = getBoolean(json, "enforce");
+                if (enforce == null) {
+                    return failed(name, "enforce parameter is required");
+                }
+                return new BatchOperation(name, implementation -> implementation.setNavigationBarContrastEnforced(enforce), null);
+            }
+            case "forceTransparentNavigationBar":
+                return new BatchOperation(name, EdgeToEdge::forceTransparentNavigationBar, null);
+            case "enterImmersiveMode":
+                return enterImmersiveMode(name, json);
+            case "exitImmersiveMode":
+                return new BatchOperation(name, EdgeToEdge::exitImmersiveMode, null);
+            case "setImmersiveMode": {
+                Boolean enter = getBoolean(json, "enter");
+                if (enter == null) {
+                    return failed(name, "enter parameter is required");
+                }
+                if (enter) {
+                    return enterImmersiveMode(name, json);
+                }
+                return new BatchOperation(name, EdgeToEdge::exitImmersiveMode, null);
+            }
+            case "setKeyboardAnimation": {
+                Boolean enabled = getBoolean(json, "enabled");
+                if (enabled == null) {
+                    return failed(name, "enabled parameter is required");
+                }
+                // Without emitProgress the progress events stay as they are, a batch must not turn them off silently
+                Boolean emitProgress = getBoolean(json, "emitProgress");
+                return new BatchOperation(
+                    name,
+                    implementation -> implementation.setKeyboardAnimation(
+                        enabled,
+                        emitProgress != null ? emitProgress : implementation.isKeyboardAnimationProgressEvents()
+                    ),
+                    null
+                );
+            }
+            case "":
+                return failed(name, "op parameter is required");
+            default:
+                return failed(name, "Unknown operation: " + name);
+        }
+    }
+
+    /**
+     * Run the operation and describe its outcome. Must be called on the UI thread.
+     */
+    @NonNull
+    public JSObject execute(@NonNull EdgeToEdge implementation) {
+        JSObject result = new JSObject();
+        result.put("op", name);
+        if (action == null) {
+            result.put("success", false);
+            result.put("error", error);
+            return result;
+        }
+        try {
+            action.run(implementation);
+            result.put("success", true);
+        } catch (Exception exception) {
+            result.put("success", false);
+            result.put("error", exception.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Enter immersive mode with the same options as the enterImmersiveMode plugin method
+     */
+    private static BatchOperation enterImmersiveMode(String name, JSONObject json) {
+        try {
+            ImmersiveModeOptions options = ImmersiveModeOptions.parse(getString(json, "behavior"), getLong(json, "autoHideDelayMs"));
+            return new BatchOperation(name, options::enter, null);
+        } catch (IllegalArgumentException e) {
+            return failed(name, e.getMessage());
+        }
+    }
+
+    private static BatchOperation failed(String name, String error) {
+        return new BatchOperation(name, null, error);
+    }
+
+    @Nullable
+    private static Boolean getBoolean(JSONObject json, String key) {
+        Object value = json.opt(key);
+        return value instanceof Boolean ? (Boolean) value : null;
+    }
+
+    @Nullable
+    private static Long getLong(JSONObject json, String key) {
+        Object value = json.opt(key);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    @Nullable
+    private static String getString(JSONObject json, String key) {
+        Object value = json.opt(key);
+        return value instanceof String ? (String) value : null;
+    }
+}
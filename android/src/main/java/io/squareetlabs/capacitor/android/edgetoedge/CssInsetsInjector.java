@@ -0,0 +1,133 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.view.Choreographer;
+import android.webkit.WebView;
+import androidx.annotation.NonNull;
+import java.util.Locale;
+
+/**
+ * Exposes the insets to the page as CSS custom properties on the document root
+ * (--e2e-inset-top, --e2e-inset-left, --e2e-inset-right, --e2e-inset-bottom and --e2e-ime-bottom),
+ * so the web view can stay full-window instead of being resized.
+ * Values are converted to CSS pixels and updates are coalesced into a single evaluateJavascript per frame.
+ * Must only be used on the UI thread.
+ */
+public class CssInsetsInjector implements Choreographer.FrameCallback {
+
+    private static final String SCRIPT_SET =
+        "(function(){var s=document.documentElement.style;" +
+        "s.setProperty('--e2e-inset-top','%1$.2fpx');" +
+        "s.setProperty('--e2e-inset-left','%2$.2fpx');" +
+        "s.setProperty('--e2e-inset-right','%3$.2fpx');" +
+        "s.setProperty('--e2e-inset-bottom','%4$.2fpx');" +
+        "s.setProperty('--e2e-ime-bottom','%5$.2fpx');})();";
+
+    private static final String SCRIPT_CLEAR =
+        "(function(){var s=document.documentElement.style;" +
+        "['--e2e-inset-top','--e2e-inset-left','--e2e-inset-right','--e2e-inset-bottom','--e2e-ime-bottom']" +
+        ".forEach(function(p){s.removeProperty(p);});})();";
+
+    @NonNull
+    private final WebView webView;
+
+    private int top;
+    private int left;
+    private int right;
+    private int bottom;
+    private int imeBottom;
+    private boolean hasValues = false;
+
+    private boolean injected = false;
+    private int injectedTop;
+    private int injectedLeft;
+    private int injectedRight;
+    private int injectedBottom;
+    private int injectedImeBottom;
+
+    private boolean frameScheduled = false;
+
+    public CssInsetsInjector(@NonNull WebView webView) {
+        this.webView = webView;
+    }
+
+    /**
+     * Record the current insets in physical pixels and schedule an injection if they changed.
+     */
+    public void update(int top, int left, int right, int bottom, int imeBottom) {
+        this.top = top;
+        this.left = left;
+        this.right = right;
+        this.bottom = bottom;
+        this.imeBottom = imeBottom;
+        this.hasValues = true;
+        scheduleIfChanged();
+    }
+
+    /**
+     * Inject the current values again on the next frame, e.g. after the page navigated.
+     */
+    public void reinject() {
+        injected = false;
+        scheduleIfChanged();
+    }
+
+    /**
+     * Remove the custom properties from the document root and drop any pending injection.
+     */
+    public void clear() {
+        if (frameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            frameScheduled = false;
+        }
+        if (injected) {
+            webView.evaluateJavascript(SCRIPT_CLEAR, null);
+            injected = false;
+        }
+        hasValues = false;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        if (!hasChanged()) {
+            return;
+        }
+        float density = webView.getResources().getDisplayMetrics().density;
+        String script = String.format(
+            Locale.US,
+            SCRIPT_SET,
+            top / density,
+            left / density,
+            right / density,
+            bottom / density,
+            imeBottom / density
+        );
+        webView.evaluateJavascript(script, null);
+
+        injected = true;
+        injectedTop = top;
+        injectedLeft = left;
+        injectedRight = right;
+        injectedBottom = bottom;
+        injectedImeBottom = imeBottom;
+    }
+
+    private void scheduleIfChanged() {
+        if (frameScheduled || !hasValues || !hasChanged()) {
+            return;
+        }
+        frameScheduled = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private boolean hasChanged() {
+        return (
+            !injected ||
+            injectedTop != top ||
+            injectedLeft != left ||
+            injectedRight != right ||
+            injectedBottom != bottom ||
+            injectedImeBottom != imeBottom
+        );
+    }
+}
@@ -1,44 +1,216 @@
 package io.squareetlabs.capacitor.android.edgetoedge;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
 import android.graphics.Color;
+import android.graphics.RectF;
 import android.os.Build;
+import android.os.SystemClock;
 import android.view.View;
-import android.view.ViewGroup;
 import android.view.Window;
 import androidx.annotation.NonNull;
-import androidx.core.graphics.Insets;
+import androidx.annotation.Nullable;
+import androidx.core.graphics.ColorUtils;
+import androidx.core.view.OnApplyWindowInsetsListener;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowCompat;
 import androidx.core.view.WindowInsetsAnimationCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.core.view.WindowInsetsControllerCompat;
+import com.getcapacitor.JSObject;
 import java.util.List;
 
 public class EdgeToEdge {
 
     private static final String TAG = "EdgeToEdge";
 
+    public static final String EVENT_NAVIGATION_MODE_CHANGED = "navigationModeChanged";
+
+    public static final String EVENT_KEYBOARD_ANIMATION_PROGRESS = "keyboardAnimationProgress";
+
+    public static final String EVENT_SYSTEM_BARS_VISIBILITY_CHANGED = "systemBarsVisibilityChanged";
+
     @NonNull
     private final EdgeToEdgePlugin plugin;
     
-    private boolean immersiveMode = false;
-    
     private EdgeToEdgeConfig config;
 
-    public EdgeToEdge(@NonNull EdgeToEdgePlugin plugin) {
+    private final WindowStateStore windowState = new WindowStateStore(this::publishWindowState);
+
+    // Written on the UI thread only, read from any thread
+    @NonNull
+    private volatile EdgeToEdgeState state = EdgeToEdgeState.EMPTY;
+
+    private ValueAnimator barColorAnimator;
+
+    private final InsetsApplier insetsApplier = new InsetsApplier();
+
+    // Reused by every dispatch, so reading the insets does not create derived objects
+    private final InsetsReader insetsReader = new InsetsReader();
+
+    // Insets applied last, a dispatch of equal insets is not read again
+    private WindowInsetsCompat appliedInsets;
+
+    // Root insets read outside the dispatch path, so the dispatched values in insetsReader stay intact
+    private final InsetsReader navigationModeReader = new InsetsReader();
+
+    // Native views and callbacks served from the same dispatch as the web view
+    private final InsetsFanOut insetsFanOut = new InsetsFanOut();
+
+    // Holds back dispatches during resize storms, according to the resizeStormMode option
+    @NonNull
+    private final InsetsDispatchDebouncer insetsDebouncer;
+
+    private final OnApplyWindowInsetsListener insetsListener = this::onApplyWindowInsets;
+
+    @NonNull
+    private final InsetsEventEmitter insetsEventEmitter;
+
+    @NonNull
+    private final NavigationModeDetector navigationModeDetector;
+
+    @NonNull
+    private final CssInsetsInjector cssInsetsInjector;
+
+    @NonNull
+    private final SystemBarsVisibilityTracker systemBarsVisibilityTracker;
+
+    // Paints the bar colors on Android 15+ where the window bar colors are ignored, null otherwise
+    @Nullable
+    private final BarScrimController barScrim;
+
+    @NonNull
+    private final BarAppearanceSampler barAppearanceSampler;
+
+    @NonNull
+    private final GestureExclusionController gestureExclusion;
+
+    // Delay after which system bars revealed by the user are hidden again in immersive mode, 0 to keep them
+    private long immersiveAutoHideDelayMs = 0;
+
+    private final Runnable immersiveAutoHide = this::hideRevealedSystemBars;
+
+    @NonNull
+    private EdgeToEdgeConfig.InsetMode insetMode;
+
+    @NonNull
+    private EdgeToEdgeConfig.ImeMode imeMode;
+
+    // Whether the insets listener is installed on the web view
+    private boolean insetsEnabled = false;
+
+    // Whether an IME animation is running, during which the web view follows the keyboard with a translation
+    private boolean imeAnimationRunning = false;
+
+    private boolean keyboardAnimationEnabled = false;
+
+    private boolean keyboardAnimationProgressEvents = false;
+
+    @NonNull
+    private final KeyboardAnimationCallback keyboardAnimationCallback = new KeyboardAnimationCallback();
+
+    @NonNull
+    private final KeyboardEventTracker keyboardEventTracker;
+
+    @NonNull
+    private final EdgeToEdgeMetrics metrics;
+
+    public EdgeToEdge(@NonNull EdgeToEdgePlugin plugin, @NonNull EdgeToEdgeConfig config) {
         this.plugin = plugin;
-        this.config = new EdgeToEdgeConfig();
-        
-        // Check if we should disable edge-to-edge for gesture navigation
-        if (config.isDisableEdgeToEdgeForGesture() && isGestureNavigation()) {
-            // Don't enable edge-to-edge for gesture navigation
-            return;
+        this.insetsEventEmitter = new InsetsEventEmitter(plugin);
+        this.navigationModeDetector = new NavigationModeDetector(isGestureNavigation -> {
+            JSObject result = new JSObject();
+            result.put("isGestureNavigation", isGestureNavigation);
+            plugin.notifyEvent(EVENT_NAVIGATION_MODE_CHANGED, result);
+        });
+        this.cssInsetsInjector = new CssInsetsInjector(plugin.getBridge().getWebView());
+        this.barScrim = BarScrimController.isRequired(plugin.getContext()) ? new BarScrimController(plugin.getActivity()) : null;
+        this.gestureExclusion = new GestureExclusionController(plugin.getBridge().getWebView());
+        this.barAppearanceSampler = new BarAppearanceSampler(
+            plugin.getActivity().getWindow(),
+            plugin.getBridge().getWebView(),
+            new BarAppearanceSampler.Listener() {
+                @Override
+                public void onStatusBarAppearanceSampled(boolean lightIcons) {
+                    setStatusBarAppearance(lightIcons);
+                }
+
+                @Override
+                public void onNavigationBarAppearanceSampled(boolean lightIcons) {
+                    setNavigationBarAppearance(lightIcons);
+                }
+            }
+        );
+        this.systemBarsVisibilityTracker = new SystemBarsVisibilityTracker(visible -> {
+            JSObject result = new JSObject();
+            result.put("visible", visible);
+            plugin.notifyEvent(EVENT_SYSTEM_BARS_VISIBILITY_CHANGED, result);
+        });
+        this.keyboardEventTracker = new KeyboardEventTracker(plugin);
+        EdgeToEdgeTrace.setEnabled(config.isTrace());
+        this.metrics = new EdgeToEdgeMetrics(config.isMetrics());
+        this.config = config;
+        this.insetsDebouncer = new InsetsDispatchDebouncer(config.getResizeStormMode(), this::applyDispatchedInsets);
+        this.insetMode = config.getInsetMode();
+        this.imeMode = config.getImeMode();
+
+        EdgeToEdgeTrace.beginSection("startup");
+        try {
+            // Don't enable edge-to-edge for gesture navigation if configured so.
+            // The decor view is not attached yet, so the mode comes from the system configuration.
+            boolean skipEdgeToEdge =
+                config.isDisableEdgeToEdgeForGesture() &&
+                NavigationModeDetector.readConfiguredMode(plugin.getContext().getResources());
+            if (!skipEdgeToEdge) {
+                // Enable edge-to-edge using WindowCompat as per Android documentation
+                enableEdgeToEdge();
+                // Apply insets to enable the edge-to-edge feature
+                applyInsets();
+            }
+
+            // Apply the configured styling before the web view draws its first frame.
+            // This comes last, enableEdgeToEdge() resets the bar colors and contrast enforcement.
+            applyStartupConfig();
+        } finally {
+            EdgeToEdgeTrace.endSection();
+        }
+    }
+
+    /**
+     * Apply the styling values of the startup configuration.
+     * Values that are not configured are left untouched.
+     */
+    private void applyStartupConfig() {
+        if (config.getLightStatusBar() != null) {
+            setStatusBarAppearance(config.getLightStatusBar());
+        }
+        if (config.getLightNavigationBar() != null) {
+            setNavigationBarAppearance(config.getLightNavigationBar());
+        }
+        if (config.getStatusBarColor() != null) {
+            setStatusBarColor(config.getStatusBarColor());
+        }
+        if (config.getNavigationBarColor() != null) {
+            setNavigationBarColor(config.getNavigationBarColor(), Boolean.TRUE.equals(config.getEnforceContrast()));
+        }
+        if (config.getEnforceContrast() != null) {
+            setNavigationBarContrastEnforced(config.getEnforceContrast());
+        }
+        Window window = plugin.getActivity().getWindow();
+        if (config.getSystemBarsBehavior() != null && window != null) {
+            setSystemBarsBehavior(window, config.getSystemBarsBehavior());
+        }
+        if (config.isImmersive()) {
+            enterImmersiveMode();
+        }
+        if (config.isKeyboardAnimation()) {
+            setKeyboardAnimation(true);
+        }
+        if (config.isAutoBarAppearance()) {
+            setAutoBarAppearance(true, BarAppearanceSampler.DEFAULT_INTERVAL_MS);
         }
-        
-        // Enable edge-to-edge using WindowCompat as per Android documentation
-        enableEdgeToEdge();
-        // Apply insets to enable the edge-to-edge feature
-        applyInsets();
     }
 
     /**
@@ -46,21 +218,70 @@ public class EdgeToEdge {
      * This method should be called from the Activity to enable edge-to-edge display.
      */
     private void enableEdgeToEdge() {
-        Window window = plugin.getActivity().getWindow();
-        if (window != null) {
-            View decorView = window.getDecorView();
-            if (decorView != null) {
-                WindowCompat.setDecorFitsSystemWindows(window, false);
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-                    WindowCompat.enableEdgeToEdge(window);
-                } else {
-                    decorView.setSystemUiVisibility(
-                        View.SYSTEM_UI_FLAG_LAYOUT_STABLE | 
-                        View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN | 
-                        View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION
-                    );
+        EdgeToEdgeTrace.beginSection("enableEdgeToEdge");
+        try {
+            Window window = plugin.getActivity().getWindow();
+            if (window != null) {
+                View decorView = window.getDecorView();
+                if (decorView != null) {
+                    WindowCompat.setDecorFitsSystemWindows(window, false);
+                    metrics.recordWindowSetterCall();
+                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                        WindowCompat.enableEdgeToEdge(window);
+                        metrics.recordWindowSetterCall();
+                        // The bar colors and contrast enforcement were reset behind the store's back
+                        reapplyWindowState(window);
+                    } else {
+                        setSystemUiVisibility(
+                            decorView,
+                            View.SYSTEM_UI_FLAG_LAYOUT_STABLE | 
+                            View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN | 
+                            View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION
+                        );
+                    }
                 }
             }
+        } finally {
+            EdgeToEdgeTrace.endSection();
+        }
+    }
+
+    /**
+     * Forget the recorded window state and apply the recorded values again,
+     * after the window was changed outside of the setters
+     */
+    private void reapplyWindowState(@NonNull Window window) {
+        Integer statusBarColor = windowState.getStatusBarColor();
+        Integer navigationBarColor = windowState.getNavigationBarColor();
+        Boolean lightStatusBar = windowState.getLightStatusBar();
+        Boolean lightNavigationBar = windowState.getLightNavigationBar();
+        Boolean navigationBarContrastEnforced = windowState.getNavigationBarContrastEnforced();
+        Integer systemBarsBehavior = windowState.getSystemBarsBehavior();
+        Boolean systemBarsHidden = windowState.getSystemBarsHidden();
+        windowState.invalidate();
+
+        if (lightStatusBar != null) {
+            setStatusBarAppearance(lightStatusBar);
+        }
+        if (lightNavigationBar != null) {
+            setNavigationBarAppearance(lightNavigationBar);
+        }
+        if (statusBarColor != null) {
+            applyStatusBarColor(statusBarColor);
+        }
+        if (navigationBarColor != null && windowState.updateNavigationBarColor(navigationBarColor)) {
+            writeNavigationBarColor(window, navigationBarColor);
+        }
+        if (navigationBarContrastEnforced != null) {
+            setNavigationBarContrastEnforced(navigationBarContrastEnforced);
+        }
+        if (systemBarsBehavior != null) {
+            setSystemBarsBehavior(window, systemBarsBehavior);
+        }
+        if (Boolean.TRUE.equals(systemBarsHidden)) {
+            enterImmersiveMode();
+        } else if (systemBarsHidden != null) {
+            windowState.updateSystemBarsHidden(false);
         }
     }
 
@@ -76,67 +297,301 @@ public class EdgeToEdge {
         removeInsets();
     }
 
-    public ViewGroup.MarginLayoutParams getInsets() {
-        View view = plugin.getBridge().getWebView();
-        return (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+    /**
+     * Get the latest published state snapshot. Safe to call from any thread.
+     */
+    @NonNull
+    public EdgeToEdgeState getState() {
+        return state;
+    }
+
+    private void publishWindowState() {
+        state = state.withWindowState(windowState);
     }
 
     private void applyInsets() {
         View view = plugin.getBridge().getWebView();
+        // The listener may have been removed by disable(), so make sure the next dispatch is applied
+        insetsApplier.invalidate();
+        insetsDebouncer.cancel();
+        insetsEnabled = true;
         WindowInsetsCompat currentInsets = ViewCompat.getRootWindowInsets(view);
         if (currentInsets != null) {
-            Insets systemBarsInsets = currentInsets.getInsets(
-                WindowInsetsCompat.Type.systemBars() | WindowInsetsCompat.Type.displayCutout()
-            );
-            Insets imeInsets = currentInsets.getInsets(WindowInsetsCompat.Type.ime());
-            boolean keyboardVisible = currentInsets.isVisible(WindowInsetsCompat.Type.ime());
-
-            ViewGroup.MarginLayoutParams mlp = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+            applyWindowInsets(view, currentInsets);
+        }
+        // Set listener
+        ViewCompat.setOnApplyWindowInsetsListener(view, insetsListener);
+        // Track keyboard animations for the keyboard events and the keyboard animation
+        ViewCompat.setWindowInsetsAnimationCallback(view, keyboardAnimationCallback);
+    }
 
-            mlp.bottomMargin = keyboardVisible ? imeInsets.bottom : systemBarsInsets.bottom;
-            mlp.topMargin = systemBarsInsets.top;
-            mlp.leftMargin = systemBarsInsets.left;
-            mlp.rightMargin = systemBarsInsets.right;
+    private WindowInsetsCompat onApplyWindowInsets(View view, WindowInsetsCompat windowInsets) {
+        insetsDebouncer.onDispatch(view, windowInsets);
+        return WindowInsetsCompat.CONSUMED;
+    }
 
-            view.setLayoutParams(mlp);
+    /**
+     * Apply the insets of a listener dispatch, unless they equal the insets applied last.
+     * The system re-dispatches unchanged insets on many layout passes, nothing derived from them can change then.
+     */
+    private void applyDispatchedInsets(@NonNull View view, @NonNull WindowInsetsCompat windowInsets) {
+        if (windowInsets.equals(appliedInsets)) {
+            metrics.recordInsetsDispatch(false);
+            return;
         }
-        // Set listener
-        ViewCompat.setOnApplyWindowInsetsListener(view, (v, windowInsets) -> {
-            // Retrieve system bars insets (for status/navigation bars)
-            Insets systemBarsInsets = windowInsets.getInsets(
-                WindowInsetsCompat.Type.systemBars() | WindowInsetsCompat.Type.displayCutout()
-            );
-            // Retrieve keyboard (IME) insets
-            Insets imeInsets = windowInsets.getInsets(WindowInsetsCompat.Type.ime());
-            boolean keyboardVisible = windowInsets.isVisible(WindowInsetsCompat.Type.ime());
+        applyWindowInsets(view, windowInsets);
+    }
+
+    /**
+     * Apply the given window insets to the view as margins.
+     * The layout params are only updated when one of the margins actually changed.
+     */
+    private void applyWindowInsets(@NonNull View view, @NonNull WindowInsetsCompat windowInsets) {
+        EdgeToEdgeTrace.beginSection("applyInsets");
+        try {
+            appliedInsets = windowInsets;
+            // Read every inset type once into primitive fields
+            InsetsReader insets = insetsReader;
+            insets.read(windowInsets);
+            boolean keyboardVisible = insets.isImeVisible();
+            int keyboardHeight = insets.get(InsetsReader.IME, InsetsReader.BOTTOM);
 
-            ViewGroup.MarginLayoutParams mlp = (ViewGroup.MarginLayoutParams) v.getLayoutParams();
+            // System bars and display cutout combined (for status/navigation bars)
+            int safeTop = insets.getSafeArea(InsetsReader.TOP);
+            int safeLeft = insets.getSafeArea(InsetsReader.LEFT);
+            int safeRight = insets.getSafeArea(InsetsReader.RIGHT);
+            int safeBottom = insets.getSafeArea(InsetsReader.BOTTOM);
 
-            // Apply the appropriate bottom inset: use keyboard inset if visible, else system bars inset
-            mlp.bottomMargin = keyboardVisible ? imeInsets.bottom : systemBarsInsets.bottom;
+            // The keyboard height the page has to know about, nothing if the keyboard is ignored
+            int imeBottom = keyboardVisible && imeMode != EdgeToEdgeConfig.ImeMode.NONE ? keyboardHeight : 0;
 
-            // Set the other margins using system bars insets
-            mlp.topMargin = systemBarsInsets.top;
-            mlp.leftMargin = systemBarsInsets.left;
-            mlp.rightMargin = systemBarsInsets.right;
+            boolean layoutChanged;
+            if (insetMode == EdgeToEdgeConfig.InsetMode.CSS) {
+                // Keep the web view full-window and let the page handle the insets
+                layoutChanged = insetsApplier.apply(view, 0, 0, 0, 0);
+                cssInsetsInjector.update(safeTop, safeLeft, safeRight, safeBottom, imeBottom);
+            } else {
+                // Apply the appropriate bottom inset: use keyboard inset if the web view resizes with it, else system bars inset
+                int bottom = keyboardVisible && imeMode == EdgeToEdgeConfig.ImeMode.RESIZE ? keyboardHeight : safeBottom;
+                if (imeAnimationRunning && imeMode == EdgeToEdgeConfig.ImeMode.RESIZE) {
+                    // Keep the taller web view while the keyboard animates, the translation covers the difference.
+                    // The margin is committed in onEnd, so there is a single relayout per show or hide.
+                    bottom = Math.min(bottom, insetsApplier.getBottom());
+                }
 
-            v.setLayoutParams(mlp);
+                layoutChanged = insetsApplier.apply(view, safeTop, safeLeft, safeRight, bottom);
 
-            return WindowInsetsCompat.CONSUMED;
-        });
+                if (imeMode == EdgeToEdgeConfig.ImeMode.OVERLAY) {
+                    // Only report how much of the web view the keyboard covers
+                    cssInsetsInjector.update(0, 0, 0, 0, Math.max(0, imeBottom - safeBottom));
+                }
+            }
+
+            metrics.recordInsetsDispatch(layoutChanged);
+
+            // Push the new insets to JavaScript, coalesced to one event per frame
+            insetsEventEmitter.onInsetsDispatched(insets);
+
+            // Update the subscribed native views whose insets changed
+            insetsFanOut.dispatch(insets);
+
+            // Send the keyboard lifecycle events when the keyboard does not animate
+            keyboardEventTracker.onInsetsDispatched(keyboardVisible, keyboardHeight);
+
+            // Refresh the cached navigation mode
+            navigationModeDetector.update(insets);
+
+            // Only sample the bar regions the web view is drawn beneath
+            barAppearanceSampler.setRegions(
+                insetsApplier.getTop() == 0 ? safeTop : 0,
+                insetsApplier.getBottom() == 0 ? safeBottom : 0
+            );
+
+            // Back gesture areas in web view coordinates, for the gesture exclusion budget
+            gestureExclusion.updateGestureEdges(
+                Math.max(0, insets.get(InsetsReader.SYSTEM_GESTURES, InsetsReader.LEFT) - insetsApplier.getLeft()),
+                Math.max(0, insets.get(InsetsReader.SYSTEM_GESTURES, InsetsReader.RIGHT) - insetsApplier.getRight())
+            );
+
+            if (barScrim != null) {
+                barScrim.updateInsets(
+                    insets.get(InsetsReader.SYSTEM_BARS, InsetsReader.TOP),
+                    insets.get(InsetsReader.SYSTEM_BARS, InsetsReader.LEFT),
+                    insets.get(InsetsReader.SYSTEM_BARS, InsetsReader.RIGHT),
+                    insets.get(InsetsReader.SYSTEM_BARS, InsetsReader.BOTTOM)
+                );
+            }
+
+            // Follow the user revealing or hiding the system bars
+            if (systemBarsVisibilityTracker.update(insets.isSystemBarsVisible())) {
+                scheduleImmersiveAutoHide();
+            }
+
+            // Each step returns the same snapshot when nothing changed, so steady state dispatches publish nothing
+            EdgeToEdgeState next = state
+                .withMargins(insetsApplier.getTop(), insetsApplier.getLeft(), insetsApplier.getRight(), insetsApplier.getBottom())
+                .withInsets(insets)
+                .withNavigationMode(navigationModeDetector.isGestureNavigation())
+                .withSystemBarsVisible(insets.isSystemBarsVisible());
+            if (next != state) {
+                state = next;
+            }
+        } finally {
+            EdgeToEdgeTrace.endSection();
+        }
     }
 
     private void removeInsets() {
         View view = plugin.getBridge().getWebView();
-        // Reset insets
-        ViewGroup.MarginLayoutParams mlp = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
-        mlp.topMargin = 0;
-        mlp.leftMargin = 0;
-        mlp.rightMargin = 0;
-        mlp.bottomMargin = 0;
-        view.setLayoutParams(mlp);
+        // Reset insets, a held dispatch must not restore them
+        insetsDebouncer.cancel();
+        appliedInsets = null;
+        insetsApplier.apply(view, 0, 0, 0, 0);
+        cssInsetsInjector.clear();
+        state = state.withMargins(0, 0, 0, 0);
         // Reset listener
         ViewCompat.setOnApplyWindowInsetsListener(view, null);
+        ViewCompat.setWindowInsetsAnimationCallback(view, null);
+        if (imeAnimationRunning) {
+            imeAnimationRunning = false;
+            view.setTranslationY(0f);
+        }
+        insetsEnabled = false;
+    }
+
+    /**
+     * Switch between applying the insets as web view margins and exposing them as CSS custom properties.
+     * The current insets are re-applied right away in the new mode.
+     */
+    public void setInsetMode(@NonNull EdgeToEdgeConfig.InsetMode insetMode) {
+        if (this.insetMode == insetMode) {
+            return;
+        }
+        this.insetMode = insetMode;
+        if (insetMode == EdgeToEdgeConfig.InsetMode.MARGINS) {
+            cssInsetsInjector.clear();
+        }
+        reapplyInsets();
+    }
+
+    @NonNull
+    public EdgeToEdgeConfig.InsetMode getInsetMode() {
+        return insetMode;
+    }
+
+    /**
+     * Choose how the software keyboard affects the web view, e.g. per screen.
+     * The current insets are re-applied right away in the new mode.
+     */
+    public void setImeMode(@NonNull EdgeToEdgeConfig.ImeMode imeMode) {
+        if (this.imeMode == imeMode) {
+            return;
+        }
+        this.imeMode = imeMode;
+        if (insetMode == EdgeToEdgeConfig.InsetMode.MARGINS && imeMode != EdgeToEdgeConfig.ImeMode.OVERLAY) {
+            cssInsetsInjector.clear();
+        }
+        reapplyInsets();
+    }
+
+    @NonNull
+    public EdgeToEdgeConfig.ImeMode getImeMode() {
+        return imeMode;
+    }
+
+    /**
+     * Apply the current root window insets again, e.g. after a mode change
+     */
+    private void reapplyInsets() {
+        if (insetsEnabled) {
+            View view = plugin.getBridge().getWebView();
+            WindowInsetsCompat currentInsets = ViewCompat.getRootWindowInsets(view);
+            if (currentInsets != null) {
+                applyWindowInsets(view, currentInsets);
+            }
+        }
+    }
+
+    /**
+     * Re-inject the CSS custom properties after the page navigated
+     */
+    public void onPageCommitVisible() {
+        boolean usesCss = insetMode == EdgeToEdgeConfig.InsetMode.CSS || imeMode == EdgeToEdgeConfig.ImeMode.OVERLAY;
+        if (insetsEnabled && usesCss) {
+            cssInsetsInjector.reinject();
+        }
+    }
+
+    /**
+     * Pause or resume the "insetsChanged" event stream, e.g. while the activity is in the background.
+     */
+    public void setInsetsEventsPaused(boolean paused) {
+        insetsEventEmitter.setPaused(paused);
+        barAppearanceSampler.setPaused(paused);
+    }
+
+    /**
+     * Pick the bar icon appearance from the web view content drawn beneath the bars.
+     * While enabled, the sampled appearance overrides the appearance set with
+     * setStatusBarAppearance() and setNavigationBarAppearance().
+     * @param intervalMs minimum time between two samples
+     */
+    public void setAutoBarAppearance(boolean enabled, long intervalMs) {
+        barAppearanceSampler.setEnabled(enabled, intervalMs);
+    }
+
+    public boolean isAutoBarAppearance() {
+        return barAppearanceSampler.isEnabled();
+    }
+
+    /**
+     * Serve a native view from the insets dispatch of the web view, instead of a competing listener.
+     * The insets of the given types are combined per side and added to the margins or padding the view has now,
+     * only when they changed. Subscribers are not updated while edge-to-edge is disabled.
+     * Must be called on the UI thread.
+     * @param types a combination of WindowInsetsCompat.Type.systemBars(), displayCutout(), ime() and systemGestures()
+     * @param strategy {@link InsetsSubscription.Strategy#MARGIN} or {@link InsetsSubscription.Strategy#PADDING}
+     */
+    @NonNull
+    public InsetsSubscription addInsetsSubscriber(@NonNull View view, int types, @NonNull InsetsSubscription.Strategy strategy) {
+        if (strategy == InsetsSubscription.Strategy.CALLBACK) {
+            throw new IllegalArgumentException("Use addInsetsSubscriber(types, callback) for callbacks");
+        }
+        return insetsFanOut.add(types, strategy, view, null);
+    }
+
+    /**
+     * Pass the insets of the given types to a callback whenever they change, from the insets dispatch of the web view.
+     * Must be called on the UI thread.
+     * @param types a combination of WindowInsetsCompat.Type.systemBars(), displayCutout(), ime() and systemGestures()
+     */
+    @NonNull
+    public InsetsSubscription addInsetsSubscriber(int types, @NonNull InsetsSubscription.Callback callback) {
+        return insetsFanOut.add(types, InsetsSubscription.Strategy.CALLBACK, null, callback);
+    }
+
+    /**
+     * Stop serving a subscriber and restore the margins or padding its view had when it subscribed
+     */
+    public void removeInsetsSubscriber(@NonNull InsetsSubscription subscription) {
+        insetsFanOut.remove(subscription);
+    }
+
+    /**
+     * Exclude regions of the web view from the system back gesture, replacing the previous regions.
+     * Only available on Android 10 and newer.
+     * @param rects rects in CSS pixels relative to the web view
+     */
+    public void setGestureExclusionRects(@NonNull List<RectF> rects) {
+        gestureExclusion.setRects(rects);
+    }
+
+    /**
+     * Get the applier that tracks the margins applied to the web view
+     * and the number of applied and skipped inset dispatches.
+     */
+    public InsetsApplier getInsetsApplier() {
+        return insetsApplier;
     }
 
     // ==================== NEW METHODS FOR ADVANCED EDGE-TO-EDGE ====================
@@ -149,8 +604,9 @@ public class EdgeToEdge {
         Window window = plugin.getActivity().getWindow();
         if (window != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
             WindowInsetsControllerCompat controller = WindowCompat.getInsetsController(window, window.getDecorView());
-            if (controller != null) {
+            if (controller != null && windowState.updateLightStatusBar(isLight)) {
                 controller.setAppearanceLightStatusBars(!isLight);
+                metrics.recordWindowSetterCall();
             }
         }
     }
@@ -163,8 +619,9 @@ public class EdgeToEdge {
         Window window = plugin.getActivity().getWindow();
         if (window != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             WindowInsetsControllerCompat controller = WindowCompat.getInsetsController(window, window.getDecorView());
-            if (controller != null) {
+            if (controller != null && windowState.updateLightNavigationBar(isLight)) {
                 controller.setAppearanceLightNavigationBars(!isLight);
+                metrics.recordWindowSetterCall();
             }
         }
     }
@@ -174,9 +631,20 @@ public class EdgeToEdge {
      * @param color Color value in ARGB format
      */
     public void setStatusBarColor(int color) {
+        cancelBarColorAnimation();
+        applyStatusBarColor(color);
+    }
+
+    private void applyStatusBarColor(int color) {
         Window window = plugin.getActivity().getWindow();
-        if (window != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            window.setStatusBarColor(color);
+        if (window != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && windowState.updateStatusBarColor(color)) {
+            if (barScrim != null) {
+                barScrim.attach(window.getDecorView());
+                barScrim.setStatusBarColor(color);
+            } else {
+                window.setStatusBarColor(color);
+                metrics.recordWindowSetterCall();
+            }
         }
     }
 
@@ -185,14 +653,31 @@ public class EdgeToEdge {
      * @param color Color value in ARGB format
      */
     public void setNavigationBarColor(int color) {
+        setNavigationBarColor(color, false);
+    }
+
+    /**
+     * Set navigation bar color together with the contrast enforcement, so the contrast is not
+     * disabled and enabled again when both change
+     * @param color Color value in ARGB format
+     * @param enforceContrast contrast enforcement applied with the color
+     */
+    private void setNavigationBarColor(int color, boolean enforceContrast) {
+        cancelBarColorAnimation();
+        applyNavigationBarColor(color, enforceContrast);
+    }
+
+    private void applyNavigationBarColor(int color, boolean enforceContrast) {
         Window window = plugin.getActivity().getWindow();
         if (window != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            window.setNavigationBarColor(color);
+            if (windowState.updateNavigationBarColor(color)) {
+                writeNavigationBarColor(window, color);
+            }
             
             // For gesture navigation, we need to handle the edge-to-edge differently
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-                // Disable contrast enforcement to allow transparent colors
-                window.setNavigationBarContrastEnforced(false);
+                // Contrast enforcement is disabled to allow transparent colors, unless the caller enforces it
+                setNavigationBarContrastEnforced(enforceContrast);
                 
                 // For gesture navigation, we need to ensure the content extends behind the navigation bar
                 View decorView = window.getDecorView();
@@ -200,47 +685,138 @@ public class EdgeToEdge {
                     // Force the navigation bar to be transparent for gesture navigation
                     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
                         // Use WindowInsetsController to control the navigation bar
-                        WindowInsetsControllerCompat controller = WindowCompat.getInsetsController(window, decorView);
-                        if (controller != null) {
-                            // Ensure the navigation bar is transparent
-                            controller.setSystemBarsBehavior(WindowInsetsControllerCompat.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE);
-                        }
+                        // Ensure the navigation bar is transparent
+                        setSystemBarsBehavior(window, WindowInsetsControllerCompat.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE);
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeNavigationBarColor(Window window, int color) {
+        if (barScrim != null) {
+            barScrim.attach(window.getDecorView());
+            barScrim.setNavigationBarColor(color);
+        } else {
+            window.setNavigationBarColor(color);
+            metrics.recordWindowSetterCall();
+        }
+    }
+
+    /**
+     * Animate the status and navigation bar colors in ARGB space.
+     * The animation is driven by a ValueAnimator on the display's vsync and cancels any animation in flight.
+     * @param statusBarColor target status bar color, or null to leave it unchanged
+     * @param navigationBarColor target navigation bar color, or null to leave it unchanged
+     * @param durationMs duration of the animation in milliseconds
+     * @param interpolator interpolator applied to the animation fraction
+     * @param callback notified when the animation ends or is cancelled
+     */
+    public void animateBarColors(@Nullable Integer statusBarColor, @Nullable Integer navigationBarColor,
+                                 long durationMs, @NonNull TimeInterpolator interpolator,
+                                 @NonNull BarColorAnimationCallback callback) {
+        cancelBarColorAnimation();
+        Window window = plugin.getActivity().getWindow();
+        if (window == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            callback.onAnimationComplete(true);
+            return;
+        }
+
+        Integer appliedStatusBarColor = windowState.getStatusBarColor();
+        Integer appliedNavigationBarColor = windowState.getNavigationBarColor();
+        final int statusBarFrom = appliedStatusBarColor != null ? appliedStatusBarColor : window.getStatusBarColor();
+        final int navigationBarFrom = appliedNavigationBarColor != null ? appliedNavigationBarColor : window.getNavigationBarColor();
+
+        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.setDuration(durationMs);
+        animator.setInterpolator(interpolator);
+        animator.addUpdateListener(animation -> {
+            float fraction = animation.getAnimatedFraction();
+            if (statusBarColor != null) {
+                applyStatusBarColor(ColorUtils.blendARGB(statusBarFrom, statusBarColor, fraction));
+            }
+            if (navigationBarColor != null) {
+                applyNavigationBarColor(ColorUtils.blendARGB(navigationBarFrom, navigationBarColor, fraction), false);
+            }
+        });
+        animator.addListener(new AnimatorListenerAdapter() {
+            private boolean cancelled = false;
+
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                cancelled = true;
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (barColorAnimator == animation) {
+                    barColorAnimator = null;
+                }
+                if (!cancelled) {
+                    // Make sure the target colors are applied even if the last frame was skipped
+                    if (statusBarColor != null) {
+                        applyStatusBarColor(statusBarColor);
+                    }
+                    if (navigationBarColor != null) {
+                        applyNavigationBarColor(navigationBarColor, false);
                     }
                 }
+                callback.onAnimationComplete(!cancelled);
             }
+        });
+        barColorAnimator = animator;
+        animator.start();
+    }
+
+    /**
+     * Cancel the bar color animation in flight, if any
+     */
+    public void cancelBarColorAnimation() {
+        if (barColorAnimator != null) {
+            ValueAnimator animator = barColorAnimator;
+            barColorAnimator = null;
+            animator.cancel();
         }
     }
 
+    /**
+     * Callback notified when a bar color animation ends
+     */
+    public interface BarColorAnimationCallback {
+        /**
+         * @param finished true if the animation ran to the end, false if it was cancelled
+         */
+        void onAnimationComplete(boolean finished);
+    }
+
     /**
      * Force transparent navigation bar for gesture navigation
      * This method specifically handles the case where Android ignores our color settings
      */
     public void forceTransparentNavigationBar() {
+        cancelBarColorAnimation();
         Window window = plugin.getActivity().getWindow();
         if (window != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             // Set completely transparent color
-            window.setNavigationBarColor(Color.TRANSPARENT);
-            
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-                // Disable contrast enforcement
-                window.setNavigationBarContrastEnforced(false);
+            if (windowState.updateNavigationBarColor(Color.TRANSPARENT)) {
+                writeNavigationBarColor(window, Color.TRANSPARENT);
             }
             
+            // Disable contrast enforcement
+            setNavigationBarContrastEnforced(false);
+            
             View decorView = window.getDecorView();
             if (decorView != null) {
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-                    WindowInsetsControllerCompat controller = WindowCompat.getInsetsController(window, decorView);
-                    if (controller != null) {
-                        // Force transparent behavior
-                        controller.setSystemBarsBehavior(WindowInsetsControllerCompat.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE);
-                    }
+                    // Force transparent behavior
+                    setSystemBarsBehavior(window, WindowInsetsControllerCompat.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE);
                 }
                 
                 // Additional approach: modify system UI flags
                 int flags = decorView.getSystemUiVisibility();
                 flags |= View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION;
                 flags |= View.SYSTEM_UI_FLAG_LAYOUT_STABLE;
-                decorView.setSystemUiVisibility(flags);
+                setSystemUiVisibility(decorView, flags);
             }
         }
     }
@@ -251,9 +827,33 @@ public class EdgeToEdge {
      */
     public void setNavigationBarContrastEnforced(boolean enforce) {
         Window window = plugin.getActivity().getWindow();
-        if (window != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+        if (window != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && windowState.updateNavigationBarContrastEnforced(enforce)) {
             window.setNavigationBarContrastEnforced(enforce);
+            metrics.recordWindowSetterCall();
+        }
+    }
+
+    /**
+     * Set the system bars behavior, skipping the call if it is already applied
+     */
+    private void setSystemBarsBehavior(Window window, int behavior) {
+        WindowInsetsControllerCompat controller = WindowCompat.getInsetsController(window, window.getDecorView());
+        if (controller != null && windowState.updateSystemBarsBehavior(behavior)) {
+            controller.setSystemBarsBehavior(behavior);
+            metrics.recordWindowSetterCall();
+        }
+    }
+
+    /**
+     * Set the system UI visibility flags, skipping the call if they are already applied.
+     * WindowInsetsControllerCompat changes the same flags below Android 11, so the decor view is the reference.
+     */
+    private void setSystemUiVisibility(View decorView, int flags) {
+        if (decorView.getSystemUiVisibility() != flags) {
+            decorView.setSystemUiVisibility(flags);
+            metrics.recordWindowSetterCall();
         }
+        windowState.updateSystemUiVisibility(flags);
     }
 
     /**
@@ -265,9 +865,54 @@ public class EdgeToEdge {
         if (window != null) {
             View decorView = window.getDecorView();
             WindowInsetsControllerCompat controller = WindowCompat.getInsetsController(window, decorView);
+            // Also hide the bars again when the user revealed them since the last call
+            boolean revealed = systemBarsVisibilityTracker.hasValue() && systemBarsVisibilityTracker.isVisible();
+            if (controller != null && (windowState.updateSystemBarsHidden(true) || revealed)) {
+                controller.hide(WindowInsetsCompat.Type.systemBars());
+                metrics.recordWindowSetterCall();
+            }
+        }
+    }
+
+    /**
+     * Enter immersive fullscreen mode with the given behavior
+     * @param behavior one of the WindowInsetsControllerCompat.BEHAVIOR_* constants, null to keep the current one
+     * @param autoHideDelayMs delay after which bars revealed by the user are hidden again, 0 to keep them, null to keep the current delay
+     */
+    public void enterImmersiveMode(@Nullable Integer behavior, @Nullable Long autoHideDelayMs) {
+        Window window = plugin.getActivity().getWindow();
+        if (behavior != null && window != null) {
+            setSystemBarsBehavior(window, behavior);
+        }
+        if (autoHideDelayMs != null) {
+            immersiveAutoHideDelayMs = autoHideDelayMs;
+        }
+        enterImmersiveMode();
+        scheduleImmersiveAutoHide();
+    }
+
+    /**
+     * Restart the auto-hide timer if the bars are revealed in immersive mode, cancel it otherwise
+     */
+    private void scheduleImmersiveAutoHide() {
+        View view = plugin.getBridge().getWebView();
+        view.removeCallbacks(immersiveAutoHide);
+        boolean revealed = systemBarsVisibilityTracker.hasValue() && systemBarsVisibilityTracker.isVisible();
+        if (immersiveAutoHideDelayMs > 0 && revealed && Boolean.TRUE.equals(windowState.getSystemBarsHidden())) {
+            view.postDelayed(immersiveAutoHide, immersiveAutoHideDelayMs);
+        }
+    }
+
+    private void hideRevealedSystemBars() {
+        if (!Boolean.TRUE.equals(windowState.getSystemBarsHidden()) || !systemBarsVisibilityTracker.isVisible()) {
+            return;
+        }
+        Window window = plugin.getActivity().getWindow();
+        if (window != null) {
+            WindowInsetsControllerCompat controller = WindowCompat.getInsetsController(window, window.getDecorView());
             if (controller != null) {
                 controller.hide(WindowInsetsCompat.Type.systemBars());
-                immersiveMode = true;
+                metrics.recordWindowSetterCall();
             }
         }
     }
@@ -280,11 +925,13 @@ public class EdgeToEdge {
         if (window != null) {
             View decorView = window.getDecorView();
             WindowInsetsControllerCompat controller = WindowCompat.getInsetsController(window, decorView);
-            if (controller != null) {
+            if (controller != null && windowState.updateSystemBarsHidden(false)) {
                 controller.show(WindowInsetsCompat.Type.systemBars());
-                immersiveMode = false;
+                metrics.recordWindowSetterCall();
             }
         }
+        immersiveAutoHideDelayMs = 0;
+        plugin.getBridge().getWebView().removeCallbacks(immersiveAutoHide);
     }
 
     /**
@@ -303,7 +950,14 @@ public class EdgeToEdge {
      * Check if currently in immersive mode
      */
     public boolean isImmersiveMode() {
-        return immersiveMode;
+        return state.isImmersive();
+    }
+
+    /**
+     * Get the record of the window state last applied by the plugin
+     */
+    public WindowStateStore getWindowState() {
+        return windowState;
     }
 
     /**
@@ -311,55 +965,182 @@ public class EdgeToEdge {
      * This provides smooth animations when the keyboard appears/disappears
      */
     public void setKeyboardAnimation(boolean enabled) {
-        View view = plugin.getBridge().getWebView();
-        if (view != null) {
-            if (enabled) {
-                // Enable keyboard animation using WindowInsetsAnimationCompat
-                ViewCompat.setWindowInsetsAnimationCallback(view, new WindowInsetsAnimationCompat.Callback(WindowInsetsAnimationCompat.Callback.DISPATCH_MODE_STOP) {
-                    @Override
-                    public void onPrepare(WindowInsetsAnimationCompat animation) {
-                        super.onPrepare(animation);
-                    }
+        setKeyboardAnimation(enabled, false);
+    }
 
-                    @Override
-                    public WindowInsetsAnimationCompat.BoundsCompat onStart(WindowInsetsAnimationCompat animation, WindowInsetsAnimationCompat.BoundsCompat bounds) {
-                        return super.onStart(animation, bounds);
-                    }
+    /**
+     * Enable or disable keyboard animation
+     * While the keyboard animates, the web view follows it with a translation, which does not cause a relayout,
+     * and the final margin is committed once when the animation ends.
+     * @param emitProgress true to send a "keyboardAnimationProgress" event to JavaScript on every animation frame
+     */
+    public void setKeyboardAnimation(boolean enabled, boolean emitProgress) {
+        // The WindowInsetsAnimationCompat callback is installed together with the insets listener
+        keyboardAnimationEnabled = enabled;
+        keyboardAnimationProgressEvents = enabled && emitProgress;
+        if (!enabled && imeAnimationRunning) {
+            imeAnimationRunning = false;
+            plugin.getBridge().getWebView().setTranslationY(0f);
+            reapplyInsets();
+        }
+    }
+
+    /**
+     * Whether "keyboardAnimationProgress" events are sent while the keyboard animates
+     */
+    public boolean isKeyboardAnimationProgressEvents() {
+        return keyboardAnimationProgressEvents;
+    }
+
+    /**
+     * The last observed keyboard height in portrait, in physical pixels, or 0 if unknown. Safe to call from any thread.
+     */
+    public int getCachedKeyboardHeightPortrait() {
+        return keyboardEventTracker.getPortraitHeight();
+    }
+
+    /**
+     * The last observed keyboard height in landscape, in physical pixels, or 0 if unknown. Safe to call from any thread.
+     */
+    public int getCachedKeyboardHeightLandscape() {
+        return keyboardEventTracker.getLandscapeHeight();
+    }
+
+    /**
+     * Whether the web view margins follow the keyboard, in which case the animation translates the web view
+     */
+    private boolean followsKeyboard() {
+        return insetsEnabled && insetMode == EdgeToEdgeConfig.InsetMode.MARGINS && imeMode == EdgeToEdgeConfig.ImeMode.RESIZE;
+    }
+
+    private static boolean isImeAnimation(WindowInsetsAnimationCompat animation) {
+        return (animation.getTypeMask() & WindowInsetsCompat.Type.ime()) != 0;
+    }
+
+    private class KeyboardAnimationCallback extends WindowInsetsAnimationCompat.Callback {
+
+        KeyboardAnimationCallback() {
+            super(WindowInsetsAnimationCompat.Callback.DISPATCH_MODE_STOP);
+        }
 
-                    @Override
-                    public WindowInsetsCompat onProgress(WindowInsetsCompat insets, List<WindowInsetsAnimationCompat> runningAnimations) {
-                        // Apply animation progress
-                        return insets;
+        @Override
+        public void onPrepare(@NonNull WindowInsetsAnimationCompat animation) {
+            EdgeToEdgeTrace.beginSection("keyboardAnimation.onPrepare");
+            try {
+                if (isImeAnimation(animation)) {
+                    keyboardEventTracker.onAnimationPrepare();
+                    if (keyboardAnimationEnabled) {
+                        // Defer the margin change that the insets listener receives right after this call
+                        imeAnimationRunning = true;
                     }
+                }
+            } finally {
+                EdgeToEdgeTrace.endSection();
+            }
+        }
 
-                    @Override
-                    public void onEnd(WindowInsetsAnimationCompat animation) {
-                        super.onEnd(animation);
+        @NonNull
+        @Override
+        public WindowInsetsAnimationCompat.BoundsCompat onStart(
+            @NonNull WindowInsetsAnimationCompat animation,
+            @NonNull WindowInsetsAnimationCompat.BoundsCompat bounds
+        ) {
+            EdgeToEdgeTrace.beginSection("keyboardAnimation.onStart");
+            try {
+                if (isImeAnimation(animation)) {
+                    // The target insets were dispatched between onPrepare and onStart
+                    keyboardEventTracker.onAnimationStart(animation.getDurationMillis());
+                }
+            } finally {
+                EdgeToEdgeTrace.endSection();
+            }
+            return bounds;
+        }
+
+        @NonNull
+        @Override
+        public WindowInsetsCompat onProgress(@NonNull WindowInsetsCompat insets, @NonNull List<WindowInsetsAnimationCompat> runningAnimations) {
+            if (!imeAnimationRunning) {
+                return insets;
+            }
+            EdgeToEdgeTrace.beginSection("keyboardAnimation.onProgress");
+            try {
+                metrics.recordKeyboardAnimationFrame();
+                int imeBottom = insets.getInsets(WindowInsetsCompat.Type.ime()).bottom;
+                if (followsKeyboard()) {
+                    // Move the bottom of the web view along with the top of the keyboard
+                    int systemBarsBottom = insets.getInsets(
+                        WindowInsetsCompat.Type.systemBars() | WindowInsetsCompat.Type.displayCutout()
+                    ).bottom;
+                    int current = Math.max(imeBottom, systemBarsBottom);
+                    int offset = Math.max(0, current - insetsApplier.getBottom());
+                    plugin.getBridge().getWebView().setTranslationY(-offset);
+                }
+                if (keyboardAnimationProgressEvents) {
+                    float fraction = 0f;
+                    for (int i = 0; i < runningAnimations.size(); i++) {
+                        WindowInsetsAnimationCompat animation = runningAnimations.get(i);
+                        if (isImeAnimation(animation)) {
+                            fraction = animation.getInterpolatedFraction();
+                        }
                     }
-                });
-            } else {
-                ViewCompat.setWindowInsetsAnimationCallback(view, null);
+                    JSObject result = new JSObject();
+                    result.put("height", imeBottom);
+                    result.put("fraction", fraction);
+                    plugin.notifyEvent(EVENT_KEYBOARD_ANIMATION_PROGRESS, result);
+                }
+                return insets;
+            } finally {
+                EdgeToEdgeTrace.endSection();
+            }
+        }
+
+        @Override
+        public void onEnd(@NonNull WindowInsetsAnimationCompat animation) {
+            if (!isImeAnimation(animation)) {
+                return;
+            }
+            EdgeToEdgeTrace.beginSection("keyboardAnimation.onEnd");
+            try {
+                keyboardEventTracker.onAnimationEnd();
+                if (!imeAnimationRunning) {
+                    return;
+                }
+                imeAnimationRunning = false;
+                plugin.getBridge().getWebView().setTranslationY(0f);
+                // Commit the final margin once
+                reapplyInsets();
+            } finally {
+                EdgeToEdgeTrace.endSection();
             }
         }
     }
 
     /**
-     * Check if device is using gesture navigation
+     * Check if device is using gesture navigation.
+     * The result is cached and only refreshed on inset dispatch or after a configuration change.
+     * Before the first dispatch, the mode is read from the system configuration.
      */
     private boolean isGestureNavigation() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+        if (!navigationModeDetector.isValid() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
             Window window = plugin.getActivity().getWindow();
-            if (window != null) {
-                View decorView = window.getDecorView();
-                WindowInsetsCompat insets = ViewCompat.getRootWindowInsets(decorView);
-                if (insets != null) {
-                    // Check if navigation bar insets are 0 (indicating gesture navigation)
-                    Insets navigationInsets = insets.getInsets(WindowInsetsCompat.Type.navigationBars());
-                    return navigationInsets.bottom == 0;
-                }
+            WindowInsetsCompat insets = window != null ? ViewCompat.getRootWindowInsets(window.getDecorView()) : null;
+            if (insets != null) {
+                navigationModeReader.read(insets);
+                navigationModeDetector.update(navigationModeReader);
+                state = state.withNavigationMode(navigationModeDetector.isGestureNavigation());
+            } else {
+                return NavigationModeDetector.readConfiguredMode(plugin.getContext().getResources());
             }
         }
-        return false;
+        return navigationModeDetector.isGestureNavigation();
+    }
+
+    /**
+     * Invalidate the cached navigation mode, e.g. after a configuration change
+     */
+    public void invalidateNavigationMode() {
+        navigationModeDetector.invalidate();
     }
 
     /**
@@ -383,12 +1164,53 @@ public class EdgeToEdge {
         return config;
     }
 
+    /**
+     * Apply the settings of a profile that differ from the current state
+     */
+    public void applyProfile(@NonNull EdgeToEdgeProfile profile) {
+        Boolean lightStatusBar = profile.getLightStatusBar();
+        if (lightStatusBar != null && !lightStatusBar.equals(windowState.getLightStatusBar())) {
+            setStatusBarAppearance(lightStatusBar);
+        }
+        Boolean lightNavigationBar = profile.getLightNavigationBar();
+        if (lightNavigationBar != null && !lightNavigationBar.equals(windowState.getLightNavigationBar())) {
+            setNavigationBarAppearance(lightNavigationBar);
+        }
+        Integer statusBarColor = profile.getStatusBarColor();
+        if (statusBarColor != null && !statusBarColor.equals(windowState.getStatusBarColor())) {
+            setStatusBarColor(statusBarColor);
+        }
+        Boolean enforceContrast = profile.getEnforceContrast();
+        Integer navigationBarColor = profile.getNavigationBarColor();
+        if (navigationBarColor != null && !navigationBarColor.equals(windowState.getNavigationBarColor())) {
+            setNavigationBarColor(navigationBarColor, Boolean.TRUE.equals(enforceContrast));
+        }
+        if (enforceContrast != null && !enforceContrast.equals(windowState.getNavigationBarContrastEnforced())) {
+            setNavigationBarContrastEnforced(enforceContrast);
+        }
+        if (profile.getInsetMode() != null) {
+            setInsetMode(profile.getInsetMode());
+        }
+        if (profile.getImeMode() != null) {
+            setImeMode(profile.getImeMode());
+        }
+        Boolean keyboardAnimation = profile.getKeyboardAnimation();
+        if (keyboardAnimation != null && keyboardAnimation != keyboardAnimationEnabled) {
+            setKeyboardAnimation(keyboardAnimation);
+        }
+        Boolean immersive = profile.getImmersive();
+        if (immersive != null && immersive != Boolean.TRUE.equals(windowState.getSystemBarsHidden())) {
+            setImmersiveMode(immersive);
+        }
+    }
+
     /**
      * Apply edge-to-edge configuration with all settings
      */
     public void configure(boolean lightStatusBar, boolean lightNavigationBar, 
                          int statusBarColor, int navigationBarColor, 
                          boolean enforceContrast, boolean immersive) {
+        long startNanos = metrics.isEnabled() ? SystemClock.elapsedRealtimeNanos() : 0;
         setStatusBarAppearance(lightStatusBar);
         setNavigationBarAppearance(lightNavigationBar);
         setStatusBarColor(statusBarColor);
@@ -396,14 +1218,34 @@ public class EdgeToEdge {
         // Handle navigation bar color differently for gesture navigation
         if (isGestureNavigation()) {
             // For gesture navigation, always use transparent and disable contrast
-            setNavigationBarColor(Color.TRANSPARENT);
-            setNavigationBarContrastEnforced(false);
+            setNavigationBarColor(Color.TRANSPARENT, false);
         } else {
-            // For button navigation, use the specified color
-            setNavigationBarColor(navigationBarColor);
-            setNavigationBarContrastEnforced(enforceContrast);
+            // For button navigation, use the specified color and contrast in one pass
+            setNavigationBarColor(navigationBarColor, enforceContrast);
         }
         
         setImmersiveMode(immersive);
+        if (metrics.isEnabled()) {
+            metrics.recordConfigure(SystemClock.elapsedRealtimeNanos() - startNanos);
+        }
+    }
+
+    @NonNull
+    public EdgeToEdgeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Return the metrics together with the layout counters of the insets applier and the debouncer
+     */
+    @NonNull
+    public JSObject getMetricsResult() {
+        return metrics.toJSObject(insetsApplier.getAppliedCount(), insetsApplier.getSkippedCount(), insetsDebouncer.getDroppedCount());
+    }
+
+    public void resetMetrics() {
+        metrics.reset();
+        insetsApplier.resetCounters();
+        insetsDebouncer.resetCounters();
     }
 }
@@ -1,16 +1,424 @@
 package io.squareetlabs.capacitor.android.edgetoedge;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Immutable startup profile of the plugin, read once from capacitor.config in load().
+ * Styling values are nullable: null means the value is not configured and the platform default is kept.
+ */
 public class EdgeToEdgeConfig {
+
+    /**
+     * How the insets are applied to the web view
+     */
+    public enum InsetMode {
+        /**
+         * Shrink the web view with margins
+         */
+        MARGINS,
+        /**
+         * Keep the web view full-window and expose the insets as CSS custom properties
+         */
+        CSS
+    }
+
+    /**
+     * How the software keyboard affects the web view
+     */
+    public enum ImeMode {
+        /**
+         * Shrink the web view above the keyboard
+         */
+        RESIZE,
+        /**
+         * Keep the web view above the system bars and only report the keyboard height
+         */
+        OVERLAY,
+        /**
+         * Ignore the keyboard entirely
+         */
+        NONE
+    }
+
+    /**
+     * How rapid successive insets dispatches are applied, e.g. while a split-screen divider is dragged
+     */
+    public enum ResizeStormMode {
+        /**
+         * Apply every dispatch
+         */
+        NONE,
+        /**
+         * Apply the latest dispatch once per frame
+         */
+        FRAME,
+        /**
+         * Apply the latest dispatch once the insets stopped changing
+         */
+        SETTLE
+    }
+
     /**
      * Disable edge-to-edge when gesture navigation is enabled
      */
-    private boolean disableEdgeToEdgeForGesture = false;
+    private final boolean disableEdgeToEdgeForGesture;
+
+    /**
+     * Status bar color in ARGB format
+     */
+    @Nullable
+    private final Integer statusBarColor;
+
+    /**
+     * Navigation bar color in ARGB format
+     */
+    @Nullable
+    private final Integer navigationBarColor;
+
+    /**
+     * true for light status bar icons (dark background), false for dark icons (light background)
+     */
+    @Nullable
+    private final Boolean lightStatusBar;
+
+    /**
+     * true for light navigation bar icons (dark background), false for dark icons (light background)
+     */
+    @Nullable
+    private final Boolean lightNavigationBar;
+
+    /**
+     * true to enforce navigation bar contrast (translucent), false for transparent
+     */
+    @Nullable
+    private final Boolean enforceContrast;
+
+    /**
+     * One of the WindowInsetsControllerCompat.BEHAVIOR_* constants
+     */
+    @Nullable
+    private final Integer systemBarsBehavior;
+
+    /**
+     * Start in immersive mode (system bars hidden)
+     */
+    private final boolean immersive;
+
+    /**
+     * Animate the web view with the keyboard
+     */
+    private final boolean keyboardAnimation;
+
+    /**
+     * Persist the runtime window state and restore it on the next launch
+     */
+    private final boolean persistState;
+
+    /**
+     * Record the runtime metrics exposed by getMetrics()
+     */
+    private final boolean metrics;
+
+    /**
+     * Emit named trace sections for Perfetto and systrace
+     */
+    private final boolean trace;
+
+    /**
+     * Pick the bar icon appearance from the web view content drawn beneath the bars
+     */
+    private final boolean autoBarAppearance;
+
+    /**
+     * How the insets are applied to the web view
+     */
+    @NonNull
+    private final InsetMode insetMode;
+
+    /**
+     * How the software keyboard affects the web view
+     */
+    @NonNull
+    private final ImeMode imeMode;
+
+    /**
+     * How rapid successive insets dispatches are applied
+     */
+    @NonNull
+    private final ResizeStormMode resizeStormMode;
+
+    public EdgeToEdgeConfig() {
+        this(new Builder());
+    }
+
+    private EdgeToEdgeConfig(Builder builder) {
+        this.disableEdgeToEdgeForGesture = builder.disableEdgeToEdgeForGesture;
+        this.statusBarColor = builder.statusBarColor;
+        this.navigationBarColor = builder.navigationBarColor;
+        this.lightStatusBar = builder.lightStatusBar;
+        this.lightNavigationBar = builder.lightNavigationBar;
+        this.enforceContrast = builder.enforceContrast;
+        this.systemBarsBehavior = builder.systemBarsBehavior;
+        this.immersive = builder.immersive;
+        this.keyboardAnimation = builder.keyboardAnimation;
+        this.persistState = builder.persistState;
+        this.metrics = builder.metrics;
+        this.trace = builder.trace;
+        this.autoBarAppearance = builder.autoBarAppearance;
+        this.insetMode = builder.insetMode;
+        this.imeMode = builder.imeMode;
+        this.resizeStormMode = builder.resizeStormMode;
+    }
 
     public boolean isDisableEdgeToEdgeForGesture() {
         return disableEdgeToEdgeForGesture;
     }
 
-    public void setDisableEdgeToEdgeForGesture(boolean disableEdgeToEdgeForGesture) {
-        this.disableEdgeToEdgeForGesture = disableEdgeToEdgeForGesture;
+    @Nullable
+    public Integer getStatusBarColor() {
+        return statusBarColor;
+    }
+
+    @Nullable
+    public Integer getNavigationBarColor() {
+        return navigationBarColor;
+    }
+
+    @Nullable
+    public Boolean getLightStatusBar() {
+        return lightStatusBar;
+    }
+
+    @Nullable
+    public Boolean getLightNavigationBar() {
+        return lightNavigationBar;
+    }
+
+    @Nullable
+    public Boolean getEnforceContrast() {
+        return enforceContrast;
+    }
+
+    @Nullable
+    public Integer getSystemBarsBehavior() {
+        return systemBarsBehavior;
+    }
+
+    public boolean isImmersive() {
+        return immersive;
+    }
+
+    public boolean isKeyboardAnimation() {
+        return keyboardAnimation;
+    }
+
+    public boolean isPersistState() {
+        return persistState;
+    }
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public boolean isTrace() {
+        return trace;
+    }
+
+    public boolean isAutoBarAppearance() {
+        return autoBarAppearance;
+    }
+
+    @NonNull
+    public InsetMode getInsetMode() {
+        return insetMode;
+    }
+
+    @NonNull
+    public ImeMode getImeMode() {
+        return imeMode;
+    }
+
+    @NonNull
+    public ResizeStormMode getResizeStormMode() {
+        return resizeStormMode;
+    }
+
+    /**
+     * Parse an IME mode name such as "overlay", or return null if it is invalid
+     */
+    @Nullable
+    static ImeMode parseImeMode(String imeMode) {
+        switch (imeMode) {
+            case "resize":
+                return ImeMode.RESIZE;
+            case "overlay":
+                return ImeMode.OVERLAY;
+            case "none":
+                return ImeMode.NONE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parse an inset mode name such as "css", or return null if it is invalid
+     */
+    @Nullable
+    static InsetMode parseInsetMode(String insetMode) {
+        switch (insetMode) {
+            case "margins":
+                return InsetMode.MARGINS;
+            case "css":
+                return InsetMode.CSS;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parse a resize storm mode name such as "frame", or return null if it is invalid
+     */
+    @Nullable
+    static ResizeStormMode parseResizeStormMode(String resizeStormMode) {
+        switch (resizeStormMode) {
+            case "none":
+                return ResizeStormMode.NONE;
+            case "frame":
+                return ResizeStormMode.FRAME;
+            case "settle":
+                return ResizeStormMode.SETTLE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Create a builder initialized with the values of this configuration
+     */
+    @NonNull
+    public Builder toBuilder() {
+        return new Builder()
+            .setDisableEdgeToEdgeForGesture(disableEdgeToEdgeForGesture)
+            .setStatusBarColor(statusBarColor)
+            .setNavigationBarColor(navigationBarColor)
+            .setLightStatusBar(lightStatusBar)
+            .setLightNavigationBar(lightNavigationBar)
+            .setEnforceContrast(enforceContrast)
+            .setSystemBarsBehavior(systemBarsBehavior)
+            .setImmersive(immersive)
+            .setKeyboardAnimation(keyboardAnimation)
+            .setPersistState(persistState)
+            .setMetrics(metrics)
+            .setTrace(trace)
+            .setAutoBarAppearance(autoBarAppearance)
+            .setInsetMode(insetMode)
+            .setImeMode(imeMode)
+            .setResizeStormMode(resizeStormMode);
+    }
+
+    public static class Builder {
+
+        private boolean disableEdgeToEdgeForGesture = false;
+        private Integer statusBarColor;
+        private Integer navigationBarColor;
+        private Boolean lightStatusBar;
+        private Boolean lightNavigationBar;
+        private Boolean enforceContrast;
+        private Integer systemBarsBehavior;
+        private boolean immersive = false;
+        private boolean keyboardAnimation = false;
+        private boolean persistState = false;
+        private boolean metrics = false;
+        private boolean trace = false;
+        private boolean autoBarAppearance = false;
+        private InsetMode insetMode = InsetMode.MARGINS;
+        private ImeMode imeMode = ImeMode.RESIZE;
+        private ResizeStormMode resizeStormMode = ResizeStormMode.NONE;
+
+        public Builder setDisableEdgeToEdgeForGesture(boolean disableEdgeToEdgeForGesture) {
+            this.disableEdgeToEdgeForGesture = disableEdgeToEdgeForGesture;
+            return this;
+        }
+
+        public Builder setStatusBarColor(@Nullable Integer statusBarColor) {
+            this.statusBarColor = statusBarColor;
+            return this;
+        }
+
+        public Builder setNavigationBarColor(@Nullable Integer navigationBarColor) {
+            this.navigationBarColor = navigationBarColor;
+            return this;
+        }
+
+        public Builder setLightStatusBar(@Nullable Boolean lightStatusBar) {
+            this.lightStatusBar = lightStatusBar;
+            return this;
+        }
+
+        public Builder setLightNavigationBar(@Nullable Boolean lightNavigationBar) {
+            this.lightNavigationBar = lightNavigationBar;
+            return this;
+        }
+
+        public Builder setEnforceContrast(@Nullable Boolean enforceContrast) {
+            this.enforceContrast = enforceContrast;
+            return this;
+        }
+
+        public Builder setSystemBarsBehavior(@Nullable Integer systemBarsBehavior) {
+            this.systemBarsBehavior = systemBarsBehavior;
+            return this;
+        }
+
+        public Builder setImmersive(boolean immersive) {
+            this.immersive = immersive;
+            return this;
+        }
+
+        public Builder setKeyboardAnimation(boolean keyboardAnimation) {
+            this.keyboardAnimation = keyboardAnimation;
+            return this;
+        }
+
+        public Builder setPersistState(boolean persistState) {
+            this.persistState = persistState;
+            return this;
+        }
+
+        public Builder setMetrics(boolean metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public Builder setTrace(boolean trace) {
+            this.trace = trace;
+            return this;
+        }
+
+        public Builder setAutoBarAppearance(boolean autoBarAppearance) {
+            this.autoBarAppearance = autoBarAppearance;
+            return this;
+        }
+
+        public Builder setInsetMode(@NonNull InsetMode insetMode) {
+            this.insetMode = insetMode;
+            return this;
+        }
+
+        public Builder setImeMode(@NonNull ImeMode imeMode) {
+            this.imeMode = imeMode;
+            return this;
+        }
+
+        public Builder setResizeStormMode(@NonNull ResizeStormMode resizeStormMode) {
+            this.resizeStormMode = resizeStormMode;
+            return this;
+        }
+
+        @NonNull
+        public EdgeToEdgeConfig build() {
+            return new EdgeToEdgeConfig(this);
+        }
     }
 }
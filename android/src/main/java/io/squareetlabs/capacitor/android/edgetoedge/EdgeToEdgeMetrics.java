@@ -0,0 +1,193 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import androidx.annotation.NonNull;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runtime counters and latency histograms of the plugin hot paths.
+ * Recording only touches primitive fields, and every record method returns immediately when the
+ * metrics are disabled, so callers only have to guard the clock reads with {@link #isEnabled()}.
+ * Must only be used on the UI thread.
+ */
+public class EdgeToEdgeMetrics {
+
+    /**
+     * Upper bounds of the histogram buckets in milliseconds, the last bucket counts everything above
+     */
+    private static final double[] BUCKET_BOUNDS_MS = { 0.1, 0.25, 0.5, 1, 2, 4, 8, 16, 32, 64 };
+
+    /**
+     * Latency histogram with fixed buckets
+     */
+    public static class Histogram {
+
+        private final long[] buckets = new long[BUCKET_BOUNDS_MS.length + 1];
+
+        private long count;
+
+        private long totalNanos;
+
+        private long maxNanos;
+
+        void record(long nanos) {
+            double millis = nanos / 1_000_000.0;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MS.length && millis > BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = 0;
+            }
+            count = 0;
+            totalNanos = 0;
+            maxNanos = 0;
+        }
+
+        @NonNull
+        JSObject toJSObject() {
+            JSArray counts = new JSArray();
+            for (long bucket : buckets) {
+                counts.put(bucket);
+            }
+            JSObject result = new JSObject();
+            result.put("count", count);
+            result.put("totalMs", totalNanos / 1_000_000.0);
+            result.put("maxMs", maxNanos / 1_000_000.0);
+            result.put("buckets", counts);
+            return result;
+        }
+    }
+
+    private final boolean enabled;
+
+    private long insetsDispatches;
+
+    private long insetsLayoutChanges;
+
+    private long windowSetterCalls;
+
+    private long keyboardAnimationFrames;
+
+    private final Histogram configureTime = new Histogram();
+
+    private final Histogram uiThreadHop = new Histogram();
+
+    // Grows once per plugin method, recording into an existing histogram does not allocate
+    private final Map<String, Histogram> uiThreadHopByMethod = new HashMap<>();
+
+    public EdgeToEdgeMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record an insets listener dispatch
+     * @param layoutChanged true if the dispatch updated the layout params of the web view
+     */
+    public void recordInsetsDispatch(boolean layoutChanged) {
+        if (!enabled) {
+            return;
+        }
+        insetsDispatches++;
+        if (layoutChanged) {
+            insetsLayoutChanges++;
+        }
+    }
+
+    /**
+     * Record a Window or WindowInsetsControllerCompat call, only where the call is actually made
+     */
+    public void recordWindowSetterCall() {
+        if (!enabled) {
+            return;
+        }
+        windowSetterCalls++;
+    }
+
+    public void recordKeyboardAnimationFrame() {
+        if (!enabled) {
+            return;
+        }
+        keyboardAnimationFrames++;
+    }
+
+    public void recordConfigure(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        configureTime.record(nanos);
+    }
+
+    /**
+     * Record the time a plugin call waited for the UI thread
+     */
+    public void recordUiThreadHop(@NonNull String methodName, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        uiThreadHop.record(nanos);
+        Histogram histogram = uiThreadHopByMethod.get(methodName);
+        if (histogram == null) {
+            histogram = new Histogram();
+            uiThreadHopByMethod.put(methodName, histogram);
+        }
+        histogram.record(nanos);
+    }
+
+    public void reset() {
+        insetsDispatches = 0;
+        insetsLayoutChanges = 0;
+        windowSetterCalls = 0;
+        keyboardAnimationFrames = 0;
+        configureTime.reset();
+        uiThreadHop.reset();
+        uiThreadHopByMethod.clear();
+    }
+
+    /**
+     * @param layoutParamsUpdates number of setLayoutParams calls on the web view
+     * @param layoutParamsSkips number of margin updates skipped because nothing changed
+     * @param droppedInsetsDispatches number of dispatches replaced by a newer one during a resize storm
+     */
+    @NonNull
+    public JSObject toJSObject(long layoutParamsUpdates, long layoutParamsSkips, long droppedInsetsDispatches) {
+        JSArray bounds = new JSArray();
+        for (double bound : BUCKET_BOUNDS_MS) {
+            // put(Object), put(double) declares a checked JSONException
+            bounds.put(Double.valueOf(bound));
+        }
+        JSObject byMethod = new JSObject();
+        for (Map.Entry<String, Histogram> entry : uiThreadHopByMethod.entrySet()) {
+            byMethod.put(entry.getKey(), entry.getValue().toJSObject());
+        }
+        JSObject result = new JSObject();
+        result.put("enabled", enabled);
+        result.put("insetsDispatches", insetsDispatches);
+        result.put("insetsLayoutChanges", insetsLayoutChanges);
+        result.put("layoutParamsUpdates", layoutParamsUpdates);
+        result.put("layoutParamsSkips", layoutParamsSkips);
+        result.put("droppedInsetsDispatches", droppedInsetsDispatches);
+        result.put("windowSetterCalls", windowSetterCalls);
+        result.put("keyboardAnimationFrames", keyboardAnimationFrames);
+        result.put("configure", configureTime.toJSObject());
+        result.put("uiThreadHop", uiThreadHop.toJSObject());
+        result.put("uiThreadHopByMethod", byMethod);
+        result.put("bucketBoundsMs", bounds);
+        return result;
+    }
+}
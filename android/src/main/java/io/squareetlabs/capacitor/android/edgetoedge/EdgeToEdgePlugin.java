@@ -1,20 +1,60 @@
 package io.squareetlabs.capacitor.android.edgetoedge;
 
-import android.view.ViewGroup;
+import android.animation.TimeInterpolator;
+import android.content.res.Configuration;
+import android.graphics.RectF;
+import android.webkit.WebView;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AccelerateInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+import android.view.animation.PathInterpolator;
+import androidx.core.view.WindowInsetsControllerCompat;
+import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.Logger;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
 import com.getcapacitor.PluginConfig;
 import com.getcapacitor.PluginMethod;
+import com.getcapacitor.WebViewListener;
 import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.json.JSONObject;
 
 @CapacitorPlugin(name = "EdgeToEdge")
 public class EdgeToEdgePlugin extends Plugin {
 
     private static final String TAG = "EdgeToEdge";
 
+    /**
+     * Keys of the properties whose pending writes replace each other within a frame
+     */
+    private static final String KEY_STATUS_BAR_COLOR = "statusBarColor";
+    private static final String KEY_NAVIGATION_BAR_COLOR = "navigationBarColor";
+    private static final String KEY_STATUS_BAR_APPEARANCE = "statusBarAppearance";
+    private static final String KEY_NAVIGATION_BAR_APPEARANCE = "navigationBarAppearance";
+    private static final String KEY_NAVIGATION_BAR_CONTRAST = "navigationBarContrast";
+    private static final String KEY_IMMERSIVE_MODE = "immersiveMode";
+    private static final String KEY_KEYBOARD_ANIMATION = "keyboardAnimation";
+    private static final String KEY_INSET_MODE = "insetMode";
+    private static final String KEY_IME_MODE = "imeMode";
+    private static final String KEY_AUTO_BAR_APPEARANCE = "autoBarAppearance";
+    private static final String KEY_GESTURE_EXCLUSION_RECTS = "gestureExclusionRects";
+
+    // Sampling draws the web view, keep it well below the frame rate
+    private static final long MIN_AUTO_BAR_APPEARANCE_INTERVAL_MS = 100;
+
     private EdgeToEdge implementation;
+
+    private UiCommandScheduler scheduler;
+
+    // Registered on the bridge thread, looked up by applyProfile
+    private final Map<String, EdgeToEdgeProfile> profiles = new ConcurrentHashMap<>();
     
     private PluginConfig pluginConfig;
 
@@ -22,62 +62,225 @@ public class EdgeToEdgePlugin extends Plugin {
     public void load() {
         // Read configuration from capacitor.config.ts
         pluginConfig = getConfig();
+        EdgeToEdgeConfig config = readConfig(pluginConfig);
+        readProfiles(pluginConfig);
+
+        // Restore the state of the previous run on warm starts
+        if (config.isPersistState()) {
+            config = WindowStatePreferences.restore(getContext(), config);
+        }
         
-        // Get configuration values
-        Boolean disableEdgeToEdgeForGesture = pluginConfig.getBoolean("disableEdgeToEdgeForGesture", false);
-        
-        // Initialize implementation with configuration
-        implementation = new EdgeToEdge(this);
-        
-        // Apply configuration if available
-        if (disableEdgeToEdgeForGesture) {
-            EdgeToEdgeConfig config = implementation.getConfig();
-            config.setDisableEdgeToEdgeForGesture(true);
-            implementation.setConfig(config);
+        // Initialize implementation with configuration, applying it before the first frame
+        implementation = new EdgeToEdge(this, config);
+
+        scheduler = new UiCommandScheduler(implementation.getMetrics());
+
+        // The CSS custom properties are lost when the page navigates
+        getBridge().addWebViewListener(new WebViewListener() {
+            @Override
+            public void onPageCommitVisible(WebView view, String url) {
+                implementation.onPageCommitVisible();
+            }
+        });
+    }
+
+    /**
+     * Parse the startup profile from the plugin configuration.
+     * Invalid values are logged and ignored.
+     */
+    private EdgeToEdgeConfig readConfig(PluginConfig pluginConfig) {
+        EdgeToEdgeConfig.Builder builder = new EdgeToEdgeConfig.Builder()
+            .setDisableEdgeToEdgeForGesture(pluginConfig.getBoolean("disableEdgeToEdgeForGesture", false))
+            .setStatusBarColor(readColor(pluginConfig, "statusBarColor"))
+            .setNavigationBarColor(readColor(pluginConfig, "navigationBarColor"))
+            .setLightStatusBar(readBoolean(pluginConfig, "lightStatusBar"))
+            .setLightNavigationBar(readBoolean(pluginConfig, "lightNavigationBar"))
+            .setEnforceContrast(readBoolean(pluginConfig, "enforceContrast"))
+            .setImmersive(pluginConfig.getBoolean("immersive", false))
+            .setKeyboardAnimation(pluginConfig.getBoolean("keyboardAnimation", false))
+            .setPersistState(pluginConfig.getBoolean("persistState", false))
+            .setMetrics(pluginConfig.getBoolean("metrics", false))
+            .setTrace(pluginConfig.getBoolean("trace", false))
+            .setAutoBarAppearance(pluginConfig.getBoolean("autoBarAppearance", false));
+
+        String insetMode = pluginConfig.getString("insetMode");
+        if (insetMode != null) {
+            EdgeToEdgeConfig.InsetMode parsedInsetMode = EdgeToEdgeConfig.parseInsetMode(insetMode);
+            if (parsedInsetMode != null) {
+                builder.setInsetMode(parsedInsetMode);
+            } else {
+                Logger.warn(TAG, "Invalid insetMode: " + insetMode);
+            }
         }
+
+        String imeMode = pluginConfig.getString("imeMode");
+        if (imeMode != null) {
+            EdgeToEdgeConfig.ImeMode parsedImeMode = EdgeToEdgeConfig.parseImeMode(imeMode);
+            if (parsedImeMode != null) {
+                builder.setImeMode(parsedImeMode);
+            } else {
+                Logger.warn(TAG, "Invalid imeMode: " + imeMode);
+            }
+        }
+
+        String resizeStormMode = pluginConfig.getString("resizeStormMode");
+        if (resizeStormMode != null) {
+            EdgeToEdgeConfig.ResizeStormMode parsedResizeStormMode = EdgeToEdgeConfig.parseResizeStormMode(resizeStormMode);
+            if (parsedResizeStormMode != null) {
+                builder.setResizeStormMode(parsedResizeStormMode);
+            } else {
+                Logger.warn(TAG, "Invalid resizeStormMode: " + resizeStormMode);
+            }
+        }
+
+        String systemBarsBehavior = pluginConfig.getString("systemBarsBehavior");
+        if (systemBarsBehavior != null) {
+            Integer parsedBehavior = ImmersiveModeOptions.parseBehavior(systemBarsBehavior);
+            if (parsedBehavior != null) {
+                builder.setSystemBarsBehavior(parsedBehavior);
+            } else {
+                Logger.warn(TAG, "Invalid systemBarsBehavior: " + systemBarsBehavior);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Parse the profiles declared in the plugin configuration.
+     * Invalid profiles are logged and ignored.
+     */
+    private void readProfiles(PluginConfig pluginConfig) {
+        JSONObject json = pluginConfig.getObject("profiles");
+        if (json == null) {
+            return;
+        }
+        Iterator<String> ids = json.keys();
+        while (ids.hasNext()) {
+            String id = ids.next();
+            JSONObject profile = json.optJSONObject(id);
+            if (profile == null) {
+                Logger.warn(TAG, "Invalid profile: " + id);
+                continue;
+            }
+            try {
+                profiles.put(id, EdgeToEdgeProfile.parse(profile));
+            } catch (IllegalArgumentException e) {
+                Logger.warn(TAG, "Invalid profile " + id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static Integer readColor(PluginConfig pluginConfig, String key) {
+        String colorHex = pluginConfig.getString(key);
+        if (colorHex == null) {
+            return null;
+        }
+        try {
+            return android.graphics.Color.parseColor(colorHex);
+        } catch (IllegalArgumentException e) {
+            Logger.warn(TAG, "Invalid " + key + " format: " + colorHex);
+            return null;
+        }
+    }
+
+    private static Boolean readBoolean(PluginConfig pluginConfig, String key) {
+        JSONObject json = pluginConfig.getConfigJSON();
+        if (json == null || !json.has(key)) {
+            return null;
+        }
+        return pluginConfig.getBoolean(key, false);
+    }
+
+    @Override
+    protected void handleOnStart() {
+        super.handleOnStart();
+        if (implementation != null) {
+            implementation.setInsetsEventsPaused(false);
+        }
+    }
+
+    @Override
+    protected void handleOnStop() {
+        super.handleOnStop();
+        if (implementation != null) {
+            implementation.setInsetsEventsPaused(true);
+            if (implementation.getConfig().isPersistState()) {
+                WindowStatePreferences.save(getContext(), implementation.getWindowState());
+            }
+        }
+    }
+
+    @Override
+    protected void handleOnConfigurationChanged(Configuration newConfig) {
+        super.handleOnConfigurationChanged(newConfig);
+        if (implementation != null) {
+            implementation.invalidateNavigationMode();
+        }
+    }
+
+    /**
+     * Send an event to the JavaScript listeners.
+     */
+    void notifyEvent(String eventName, JSObject data) {
+        notifyListeners(eventName, data);
     }
 
     @PluginMethod
     public void enable(PluginCall call) {
-        getActivity()
-            .runOnUiThread(() -> {
-                try {
-                    implementation.enable();
-                    call.resolve();
-                } catch (Exception exception) {
-                    call.reject(exception.getMessage());
-                }
-            });
+        scheduler.schedule(null, call, () -> implementation.enable());
     }
 
     @PluginMethod
     public void disable(PluginCall call) {
-        getActivity()
-            .runOnUiThread(() -> {
-                try {
-                    implementation.disable();
-                    call.resolve();
-                } catch (Exception exception) {
-                    call.reject(exception.getMessage());
-                }
-            });
+        scheduler.schedule(null, call, () -> implementation.disable());
     }
 
     @PluginMethod
     public void getInsets(PluginCall call) {
         try {
-            ViewGroup.MarginLayoutParams insets = implementation.getInsets();
+            EdgeToEdgeState state = implementation.getState();
             JSObject result = new JSObject();
-            result.put("bottom", insets.bottomMargin);
-            result.put("left", insets.leftMargin);
-            result.put("right", insets.rightMargin);
-            result.put("top", insets.topMargin);
+            result.put("bottom", state.getMarginBottom());
+            result.put("left", state.getMarginLeft());
+            result.put("right", state.getMarginRight());
+            result.put("top", state.getMarginTop());
             call.resolve(result);
         } catch (Exception exception) {
             call.reject(exception.getMessage());
         }
     }
 
+    @PluginMethod
+    public void setInsetMode(PluginCall call) {
+        String mode = call.getString("mode");
+        if (mode == null) {
+            call.reject("mode parameter is required");
+            return;
+        }
+        EdgeToEdgeConfig.InsetMode insetMode = EdgeToEdgeConfig.parseInsetMode(mode);
+        if (insetMode == null) {
+            call.reject("Invalid mode: " + mode);
+            return;
+        }
+        scheduler.schedule(KEY_INSET_MODE, call, () -> implementation.setInsetMode(insetMode));
+    }
+
+    @PluginMethod
+    public void setImeMode(PluginCall call) {
+        String mode = call.getString("mode");
+        if (mode == null) {
+            call.reject("mode parameter is required");
+            return;
+        }
+        EdgeToEdgeConfig.ImeMode imeMode = EdgeToEdgeConfig.parseImeMode(mode);
+        if (imeMode == null) {
+            call.reject("Invalid mode: " + mode);
+            return;
+        }
+        scheduler.schedule(KEY_IME_MODE, call, () -> implementation.setImeMode(imeMode));
+    }
+
     @PluginMethod
     public void setStatusBarAppearance(PluginCall call) {
         Boolean isLight = call.getBoolean("light");
@@ -85,14 +288,7 @@ public class EdgeToEdgePlugin extends Plugin {
             call.reject("light parameter is required");
             return;
         }
-        getActivity().runOnUiThread(() -> {
-            try {
-                implementation.setStatusBarAppearance(isLight);
-                call.resolve();
-            } catch (Exception exception) {
-                call.reject(exception.getMessage());
-            }
-        });
+        scheduler.schedule(KEY_STATUS_BAR_APPEARANCE, call, () -> implementation.setStatusBarAppearance(isLight));
     }
 
     @PluginMethod
@@ -102,14 +298,7 @@ public class EdgeToEdgePlugin extends Plugin {
             call.reject("light parameter is required");
             return;
         }
-        getActivity().runOnUiThread(() -> {
-            try {
-                implementation.setNavigationBarAppearance(isLight);
-                call.resolve();
-            } catch (Exception exception) {
-                call.reject(exception.getMessage());
-            }
-        });
+        scheduler.schedule(KEY_NAVIGATION_BAR_APPEARANCE, call, () -> implementation.setNavigationBarAppearance(isLight));
     }
 
     @PluginMethod
@@ -121,14 +310,7 @@ public class EdgeToEdgePlugin extends Plugin {
         }
         try {
             int color = android.graphics.Color.parseColor(colorHex);
-            getActivity().runOnUiThread(() -> {
-                try {
-                    implementation.setStatusBarColor(color);
-                    call.resolve();
-                } catch (Exception exception) {
-                    call.reject(exception.getMessage());
-                }
-            });
+            scheduler.schedule(KEY_STATUS_BAR_COLOR, call, () -> implementation.setStatusBarColor(color));
         } catch (IllegalArgumentException e) {
             call.reject("Invalid color format: " + colorHex);
         }
@@ -143,58 +325,107 @@ public class EdgeToEdgePlugin extends Plugin {
         }
         try {
             int color = android.graphics.Color.parseColor(colorHex);
-            getActivity().runOnUiThread(() -> {
-                try {
-                    implementation.setNavigationBarColor(color);
-                    call.resolve();
-                } catch (Exception exception) {
-                    call.reject(exception.getMessage());
-                }
-            });
+            scheduler.schedule(KEY_NAVIGATION_BAR_COLOR, call, () -> implementation.setNavigationBarColor(color));
         } catch (IllegalArgumentException e) {
             call.reject("Invalid color format: " + colorHex);
         }
     }
 
     @PluginMethod
-    public void setNavigationBarContrastEnforced(PluginCall call) {
-        Boolean enforce = call.getBoolean("enforce");
-        if (enforce == null) {
-            call.reject("enforce parameter is required");
+    public void animateBarColors(PluginCall call) {
+        String statusBarColorHex = call.getString("statusBarColor");
+        String navigationBarColorHex = call.getString("navigationBarColor");
+        Integer durationMs = call.getInt("durationMs", 300);
+        String interpolatorName = call.getString("interpolator", "accelerateDecelerate");
+
+        if (statusBarColorHex == null && navigationBarColorHex == null) {
+            call.reject("statusBarColor or navigationBarColor parameter is required");
             return;
         }
-        getActivity().runOnUiThread(() -> {
+        if (durationMs == null || durationMs < 0) {
+            call.reject("durationMs must not be negative");
+            return;
+        }
+
+        Integer statusBarColor = null;
+        Integer navigationBarColor = null;
+
+        if (statusBarColorHex != null) {
             try {
-                implementation.setNavigationBarContrastEnforced(enforce);
-                call.resolve();
+                statusBarColor = android.graphics.Color.parseColor(statusBarColorHex);
+            } catch (IllegalArgumentException e) {
+                call.reject("Invalid statusBarColor format: " + statusBarColorHex);
+                return;
+            }
+        }
+
+        if (navigationBarColorHex != null) {
+            try {
+                navigationBarColor = android.graphics.Color.parseColor(navigationBarColorHex);
+            } catch (IllegalArgumentException e) {
+                call.reject("Invalid navigationBarColor format: " + navigationBarColorHex);
+                return;
+            }
+        }
+
+        TimeInterpolator interpolator;
+        switch (interpolatorName) {
+            case "linear":
+                interpolator = new LinearInterpolator();
+                break;
+            case "accelerate":
+                interpolator = new AccelerateInterpolator();
+                break;
+            case "decelerate":
+                interpolator = new DecelerateInterpolator();
+                break;
+            case "accelerateDecelerate":
+                interpolator = new AccelerateDecelerateInterpolator();
+                break;
+            case "fastOutSlowIn":
+                interpolator = new PathInterpolator(0.4f, 0f, 0.2f, 1f);
+                break;
+            default:
+                call.reject("Invalid interpolator: " + interpolatorName);
+                return;
+        }
+
+        final Integer finalStatusBarColor = statusBarColor;
+        final Integer finalNavigationBarColor = navigationBarColor;
+        final long finalDurationMs = durationMs;
+
+        // Not coalesced, the call is resolved when the animation ends
+        scheduler.execute(call, () -> {
+            try {
+                implementation.animateBarColors(finalStatusBarColor, finalNavigationBarColor, finalDurationMs, interpolator, finished -> {
+                    JSObject result = new JSObject();
+                    result.put("finished", finished);
+                    call.resolve(result);
+                });
             } catch (Exception exception) {
                 call.reject(exception.getMessage());
             }
         });
     }
 
+    @PluginMethod
+    public void setNavigationBarContrastEnforced(PluginCall call) {
+        Boolean enforce = call.getBoolean("enforce");
+        if (enforce == null) {
+            call.reject("enforce parameter is required");
+            return;
+        }
+        scheduler.schedule(KEY_NAVIGATION_BAR_CONTRAST, call, () -> implementation.setNavigationBarContrastEnforced(enforce));
+    }
+
     @PluginMethod
     public void enterImmersiveMode(PluginCall call) {
-        getActivity().runOnUiThread(() -> {
-            try {
-                implementation.enterImmersiveMode();
-                call.resolve();
-            } catch (Exception exception) {
-                call.reject(exception.getMessage());
-            }
-        });
+        scheduleEnterImmersiveMode(call);
     }
 
     @PluginMethod
     public void exitImmersiveMode(PluginCall call) {
-        getActivity().runOnUiThread(() -> {
-            try {
-                implementation.exitImmersiveMode();
-                call.resolve();
-            } catch (Exception exception) {
-                call.reject(exception.getMessage());
-            }
-        });
+        scheduler.schedule(KEY_IMMERSIVE_MODE, call, () -> implementation.exitImmersiveMode());
     }
 
     @PluginMethod
@@ -204,22 +435,66 @@ public class EdgeToEdgePlugin extends Plugin {
             call.reject("enter parameter is required");
             return;
         }
-        getActivity().runOnUiThread(() -> {
-            try {
-                implementation.setImmersiveMode(enter);
-                call.resolve();
-            } catch (Exception exception) {
-                call.reject(exception.getMessage());
-            }
-        });
+        if (enter) {
+            scheduleEnterImmersiveMode(call);
+        } else {
+            scheduler.schedule(KEY_IMMERSIVE_MODE, call, () -> implementation.exitImmersiveMode());
+        }
+    }
+
+    private void scheduleEnterImmersiveMode(PluginCall call) {
+        ImmersiveModeOptions options;
+        try {
+            options = ImmersiveModeOptions.parse(call.getString("behavior"), call.getLong("autoHideDelayMs"));
+        } catch (IllegalArgumentException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        scheduler.schedule(KEY_IMMERSIVE_MODE, call, () -> options.enter(implementation));
     }
 
     @PluginMethod
     public void isImmersiveMode(PluginCall call) {
         try {
-            boolean isImmersive = implementation.isImmersiveMode();
+            EdgeToEdgeState state = implementation.getState();
             JSObject result = new JSObject();
-            result.put("immersive", isImmersive);
+            result.put("immersive", state.isImmersive());
+            if (state.getSystemBarsVisible() != null) {
+                result.put("systemBarsVisible", state.getSystemBarsVisible());
+            }
+            call.resolve(result);
+        } catch (Exception exception) {
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void getWindowState(PluginCall call) {
+        try {
+            EdgeToEdgeState state = implementation.getState();
+            JSObject result = new JSObject();
+            if (state.getStatusBarColor() != null) {
+                result.put("statusBarColor", toColorString(state.getStatusBarColor()));
+            }
+            if (state.getNavigationBarColor() != null) {
+                result.put("navigationBarColor", toColorString(state.getNavigationBarColor()));
+            }
+            if (state.getLightStatusBar() != null) {
+                result.put("lightStatusBar", state.getLightStatusBar());
+            }
+            if (state.getLightNavigationBar() != null) {
+                result.put("lightNavigationBar", state.getLightNavigationBar());
+            }
+            if (state.getNavigationBarContrastEnforced() != null) {
+                result.put("navigationBarContrastEnforced", state.getNavigationBarContrastEnforced());
+            }
+            if (state.getSystemBarsBehavior() != null) {
+                result.put("systemBarsBehavior", toBehaviorString(state.getSystemBarsBehavior()));
+            }
+            result.put("immersive", state.isImmersive());
+            if (state.getSystemUiVisibility() != null) {
+                result.put("systemUiVisibility", state.getSystemUiVisibility());
+            }
             call.resolve(result);
         } catch (Exception exception) {
             call.reject(exception.getMessage());
@@ -233,14 +508,24 @@ public class EdgeToEdgePlugin extends Plugin {
             call.reject("enabled parameter is required");
             return;
         }
-        getActivity().runOnUiThread(() -> {
-            try {
-                implementation.setKeyboardAnimation(enabled);
-                call.resolve();
-            } catch (Exception exception) {
-                call.reject(exception.getMessage());
-            }
-        });
+        boolean emitProgress = call.getBoolean("emitProgress", false);
+        scheduler.schedule(KEY_KEYBOARD_ANIMATION, call, () -> implementation.setKeyboardAnimation(enabled, emitProgress));
+    }
+
+    @PluginMethod
+    public void getKeyboardHeight(PluginCall call) {
+        try {
+            int portrait = implementation.getCachedKeyboardHeightPortrait();
+            int landscape = implementation.getCachedKeyboardHeightLandscape();
+            boolean isLandscape = getContext().getResources().getConfiguration().orientation == Configuration.ORIENTATION_LANDSCAPE;
+            JSObject result = new JSObject();
+            result.put("height", isLandscape ? landscape : portrait);
+            result.put("portrait", portrait);
+            result.put("landscape", landscape);
+            call.resolve(result);
+        } catch (Exception exception) {
+            call.reject(exception.getMessage());
+        }
     }
 
     @PluginMethod
@@ -286,15 +571,10 @@ public class EdgeToEdgePlugin extends Plugin {
         final boolean finalEnforceContrast = enforceContrast;
         final boolean finalImmersive = immersive;
 
-        getActivity().runOnUiThread(() -> {
-            try {
-                implementation.configure(finalLightStatusBar, finalLightNavigationBar,
-                        finalStatusBarColor, finalNavigationBarColor,
-                        finalEnforceContrast, finalImmersive);
-                call.resolve();
-            } catch (Exception exception) {
-                call.reject(exception.getMessage());
-            }
+        scheduler.schedule(null, call, () -> {
+            implementation.configure(finalLightStatusBar, finalLightNavigationBar,
+                    finalStatusBarColor, finalNavigationBarColor,
+                    finalEnforceContrast, finalImmersive);
         });
     }
 
@@ -326,41 +606,40 @@ public class EdgeToEdgePlugin extends Plugin {
         final boolean finalLightNavigationBar = lightNavigationBar;
         final boolean finalImmersive = immersive;
 
-        getActivity().runOnUiThread(() -> {
-            try {
-                // For gesture navigation, always use transparent navigation bar
-                implementation.configure(finalLightStatusBar, finalLightNavigationBar,
-                        finalStatusBarColor, android.graphics.Color.TRANSPARENT,
-                        false, finalImmersive);
-                call.resolve();
-            } catch (Exception exception) {
-                call.reject(exception.getMessage());
-            }
+        scheduler.schedule(null, call, () -> {
+            // For gesture navigation, always use transparent navigation bar
+            implementation.configure(finalLightStatusBar, finalLightNavigationBar,
+                    finalStatusBarColor, android.graphics.Color.TRANSPARENT,
+                    false, finalImmersive);
         });
     }
 
     @PluginMethod
     public void forceTransparentNavigationBar(PluginCall call) {
-        getActivity().runOnUiThread(() -> {
+        scheduler.schedule(null, call, () -> implementation.forceTransparentNavigationBar());
+    }
+
+    @PluginMethod
+    public void checkGestureNavigation(PluginCall call) {
+        EdgeToEdgeState state = implementation.getState();
+        if (state.isNavigationModeKnown()) {
+            resolveGestureNavigation(call, state.isGestureNavigation());
+            return;
+        }
+        // No insets were dispatched yet, so the mode has to be detected from the root window insets
+        scheduler.execute(call, () -> {
             try {
-                implementation.forceTransparentNavigationBar();
-                call.resolve();
+                resolveGestureNavigation(call, implementation.checkGestureNavigation());
             } catch (Exception exception) {
                 call.reject(exception.getMessage());
             }
         });
     }
 
-    @PluginMethod
-    public void checkGestureNavigation(PluginCall call) {
-        try {
-            boolean isGestureNavigation = implementation.checkGestureNavigation();
-            JSObject result = new JSObject();
-            result.put("isGestureNavigation", isGestureNavigation);
-            call.resolve(result);
-        } catch (Exception exception) {
-            call.reject(exception.getMessage());
-        }
+    private void resolveGestureNavigation(PluginCall call, boolean isGestureNavigation) {
+        JSObject result = new JSObject();
+        result.put("isGestureNavigation", isGestureNavigation);
+        call.resolve(result);
     }
 
     @PluginMethod
@@ -368,11 +647,142 @@ public class EdgeToEdgePlugin extends Plugin {
         Boolean disableEdgeToEdgeForGesture = call.getBoolean("disableEdgeToEdgeForGesture");
         
         if (disableEdgeToEdgeForGesture != null) {
-            EdgeToEdgeConfig config = implementation.getConfig();
-            config.setDisableEdgeToEdgeForGesture(disableEdgeToEdgeForGesture);
+            EdgeToEdgeConfig config = implementation.getConfig()
+                .toBuilder()
+                .setDisableEdgeToEdgeForGesture(disableEdgeToEdgeForGesture)
+                .build();
             implementation.setConfig(config);
         }
         
         call.resolve();
     }
+
+    @PluginMethod
+    public void applyBatch(PluginCall call) {
+        JSArray ops = call.getArray("ops");
+        if (ops == null) {
+            call.reject("ops parameter is required");
+            return;
+        }
+        // Parse and validate every operation on the bridge thread
+        List<BatchOperation> operations = new ArrayList<>(ops.length());
+        for (int i = 0; i < ops.length(); i++) {
+            operations.add(BatchOperation.parse(ops.optJSONObject(i)));
+        }
+        // Run them all in a single UI thread task
+        scheduler.execute(call, () -> {
+            JSArray results = new JSArray();
+            for (BatchOperation operation : operations) {
+                results.put(operation.execute(implementation));
+            }
+            JSObject result = new JSObject();
+            result.put("results", results);
+            call.resolve(result);
+        });
+    }
+
+    @PluginMethod
+    public void registerProfile(PluginCall call) {
+        String id = call.getString("id");
+        if (id == null) {
+            call.reject("id parameter is required");
+            return;
+        }
+        JSObject profile = call.getObject("profile");
+        if (profile == null) {
+            call.reject("profile parameter is required");
+            return;
+        }
+        try {
+            profiles.put(id, EdgeToEdgeProfile.parse(profile));
+            call.resolve();
+        } catch (IllegalArgumentException e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void applyProfile(PluginCall call) {
+        String id = call.getString("id");
+        if (id == null) {
+            call.reject("id parameter is required");
+            return;
+        }
+        EdgeToEdgeProfile profile = profiles.get(id);
+        if (profile == null) {
+            call.reject("Unknown profile: " + id);
+            return;
+        }
+        // Not coalesced, a later profile may leave settings of an earlier one untouched
+        scheduler.schedule(null, call, () -> implementation.applyProfile(profile));
+    }
+
+    @PluginMethod
+    public void setAutoBarAppearance(PluginCall call) {
+        Boolean enabled = call.getBoolean("enabled");
+        if (enabled == null) {
+            call.reject("enabled parameter is required");
+            return;
+        }
+        Long intervalMs = call.getLong("intervalMs", BarAppearanceSampler.DEFAULT_INTERVAL_MS);
+        if (intervalMs == null || intervalMs < MIN_AUTO_BAR_APPEARANCE_INTERVAL_MS) {
+            call.reject("intervalMs must be at least " + MIN_AUTO_BAR_APPEARANCE_INTERVAL_MS);
+            return;
+        }
+        scheduler.schedule(KEY_AUTO_BAR_APPEARANCE, call, () -> implementation.setAutoBarAppearance(enabled, intervalMs));
+    }
+
+    @PluginMethod
+    public void setGestureExclusionRects(PluginCall call) {
+        JSArray rects = call.getArray("rects");
+        if (rects == null) {
+            call.reject("rects parameter is required");
+            return;
+        }
+        // Parse on the bridge thread, only the last set of a frame is applied
+        List<RectF> parsed = new ArrayList<>(rects.length());
+        for (int i = 0; i < rects.length(); i++) {
+            JSONObject rect = rects.optJSONObject(i);
+            if (rect == null || !rect.has("x") || !rect.has("y") || !rect.has("width") || !rect.has("height")) {
+                call.reject("rects must be objects with x, y, width and height");
+                return;
+            }
+            float x = (float) rect.optDouble("x");
+            float y = (float) rect.optDouble("y");
+            float width = (float) rect.optDouble("width");
+            float height = (float) rect.optDouble("height");
+            if (Float.isNaN(x) || Float.isNaN(y) || !(width >= 0) || !(height >= 0)) {
+                call.reject("rects must have numeric coordinates and a non-negative size");
+                return;
+            }
+            parsed.add(new RectF(x, y, x + width, y + height));
+        }
+        scheduler.schedule(KEY_GESTURE_EXCLUSION_RECTS, call, () -> implementation.setGestureExclusionRects(parsed));
+    }
+
+    @PluginMethod
+    public void getMetrics(PluginCall call) {
+        // The counters are only written on the UI thread
+        scheduler.execute(call, () -> call.resolve(implementation.getMetricsResult()));
+    }
+
+    @PluginMethod
+    public void resetMetrics(PluginCall call) {
+        scheduler.schedule(null, call, () -> implementation.resetMetrics());
+    }
+
+    /**
+     * Get the implementation, e.g. to subscribe native views to the insets dispatch
+     */
+    public EdgeToEdge getImplementation() {
+        return implementation;
+    }
+
+    private static String toColorString(int color) {
+        return String.format("#%08X", color);
+    }
+
+    private static String toBehaviorString(int behavior) {
+        return behavior == WindowInsetsControllerCompat.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE ? "showTransientBarsBySwipe" : "default";
+    }
 }
@@ -0,0 +1,180 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.graphics.Color;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import org.json.JSONObject;
+
+/**
+ * Immutable named combination of bar and inset settings, parsed once when it is registered
+ * so that switching screens only costs a lookup by id.
+ * Values are nullable: null means the profile does not touch the setting.
+ */
+public final class EdgeToEdgeProfile {
+
+    @Nullable
+    private final Integer statusBarColor;
+
+    @Nullable
+    private final Integer navigationBarColor;
+
+    @Nullable
+    private final Boolean lightStatusBar;
+
+    @Nullable
+    private final Boolean lightNavigationBar;
+
+    @Nullable
+    private final Boolean enforceContrast;
+
+    @Nullable
+    private final Boolean immersive;
+
+    @Nullable
+    private final Boolean keyboardAnimation;
+
+    @Nullable
+    private final EdgeToEdgeConfig.InsetMode insetMode;
+
+    @Nullable
+    private final EdgeToEdgeConfig.ImeMode imeMode;
+
+    private EdgeToEdgeProfile(
+        @Nullable Integer statusBarColor,
+        @Nullable Integer navigationBarColor,
+        @Nullable Boolean lightStatusBar,
+        @Nullable Boolean lightNavigationBar,
+        @Nullable Boolean enforceContrast,
+        @Nullable Boolean immersive,
+        @Nullable Boolean keyboardAnimation,
+        @Nullable EdgeToEdgeConfig.InsetMode insetMode,
+        @Nullable EdgeToEdgeConfig.ImeMode imeMode
+    ) {
+        this.statusBarColor = statusBarColor;
+        this.navigationBarColor = navigationBarColor;
+        this.lightStatusBar = lightStatusBar;
+        this.lightNavigationBar = lightNavigationBar;
+        this.enforceContrast = enforceContrast;
+        this.immersive = immersive;
+        this.keyboardAnimation = keyboardAnimation;
+        this.insetMode = insetMode;
+        this.imeMode = imeMode;
+    }
+
+    /**
+     * Parse a profile such as { "statusBarColor": "#FF000000", "lightStatusBar": true, "imeMode": "overlay" }.
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    @NonNull
+    public static EdgeToEdgeProfile parse(@NonNull JSONObject json) {
+        EdgeToEdgeConfig.InsetMode insetMode = null;
+        String insetModeName = getString(json, "insetMode");
+        if (insetModeName != null) {
+            insetMode = EdgeToEdgeConfig.parseInsetMode(insetModeName);
+            if (insetMode == null) {
+                throw new IllegalArgumentException("Invalid insetMode: " + insetModeName);
+            }
+        }
+        EdgeToEdgeConfig.ImeMode imeMode = null;
+        String imeModeName = getString(json, "imeMode");
+        if (imeModeName != null) {
+            imeMode = EdgeToEdgeConfig.parseImeMode(imeModeName);
+            if (imeMode == null) {
+                throw new IllegalArgumentException("Invalid imeMode: " + imeModeName);
+            }
+        }
+        return new EdgeToEdgeProfile(
+            getColor(json, "statusBarColor"),
+            getColor(json, "navigationBarColor"),
+            getBoolean(json, "lightStatusBar"),
+            getBoolean(json, "lightNavigationBar"),
+            getBoolean(json, "enforceContrast"),
+            getBoolean(json, "immersive"),
+            getBoolean(json, "keyboardAnimation"),
+            insetMode,
+            imeMode
+        );
+    }
+
+    @Nullable
+    public Integer getStatusBarColor() {
+        return statusBarColor;
+    }
+
+    @Nullable
+    public Integer getNavigationBarColor() {
+        return navigationBarColor;
+    }
+
+    @Nullable
+    public Boolean getLightStatusBar() {
+        return lightStatusBar;
+    }
+
+    @Nullable
+    public Boolean getLightNavigationBar() {
+        return lightNavigationBar;
+    }
+
+    @Nullable
+    public Boolean getEnforceContrast() {
+        return enforceContrast;
+    }
+
+    @Nullable
+    public Boolean getImmersive() {
+        return immersive;
+    }
+
+    @Nullable
+    public Boolean getKeyboardAnimation() {
+        return keyboardAnimation;
+    }
+
+    @Nullable
+    public EdgeToEdgeConfig.InsetMode getInsetMode() {
+        return insetMode;
+    }
+
+    @Nullable
+    public EdgeToEdgeConfig.ImeMode getImeMode() {
+        return imeMode;
+    }
+
+    @Nullable
+    private static Integer getColor(JSONObject json, String key) {
+        String colorHex = getString(json, key);
+        if (colorHex == null) {
+            return null;
+        }
+        try {
+            return Color.parseColor(colorHex);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + key + " format: " + colorHex);
+        }
+    }
+
+    @Nullable
+    private static Boolean getBoolean(JSONObject json, String key) {
+        Object value = json.opt(key);
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Boolean)) {
+            throw new IllegalArgumentException(key + " must be a boolean");
+        }
+        return (Boolean) value;
+    }
+
+    @Nullable
+    private static String getString(JSONObject json, String key) {
+        Object value = json.opt(key);
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException(key + " must be a string");
+        }
+        return (String) value;
+    }
+}
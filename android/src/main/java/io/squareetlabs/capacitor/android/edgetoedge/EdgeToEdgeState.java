@@ -0,0 +1,298 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.graphics.Insets;
+
+/**
+ * Immutable snapshot of the plugin state.
+ * The UI thread publishes a new snapshot through a single volatile reference whenever the state
+ * or the insets change, so query methods can resolve on the bridge thread without touching views
+ * and always see a consistent set of values.
+ */
+public final class EdgeToEdgeState {
+
+    public static final EdgeToEdgeState EMPTY = new EdgeToEdgeState(
+        0, 0, 0, 0,
+        Insets.NONE, Insets.NONE, Insets.NONE, Insets.NONE, false,
+        false, false,
+        null, null, null, null, null, null, null, null,
+        null
+    );
+
+    // Margins applied to the web view
+    private final int marginTop;
+    private final int marginLeft;
+    private final int marginRight;
+    private final int marginBottom;
+
+    // Insets per type from the last dispatch
+    @NonNull
+    private final Insets systemBars;
+    @NonNull
+    private final Insets displayCutout;
+    @NonNull
+    private final Insets ime;
+    @NonNull
+    private final Insets systemGestures;
+    private final boolean imeVisible;
+
+    private final boolean navigationModeKnown;
+    private final boolean gestureNavigation;
+
+    // Window state applied by the plugin, null when not applied yet
+    private final Integer statusBarColor;
+    private final Integer navigationBarColor;
+    private final Boolean lightStatusBar;
+    private final Boolean lightNavigationBar;
+    private final Boolean navigationBarContrastEnforced;
+    private final Integer systemBarsBehavior;
+    private final Boolean systemBarsHidden;
+    private final Integer systemUiVisibility;
+
+    // Whether the system bars are actually on screen according to the last dispatch, null when unknown
+    private final Boolean systemBarsVisible;
+
+    private EdgeToEdgeState(
+        int marginTop,
+        int marginLeft,
+        int marginRight,
+        int marginBottom,
+        @NonNull Insets systemBars,
+        @NonNull Insets displayCutout,
+        @NonNull Insets ime,
+        @NonNull Insets systemGestures,
+        boolean imeVisible,
+        boolean navigationModeKnown,
+        boolean gestureNavigation,
+        Integer statusBarColor,
+        Integer navigationBarColor,
+        Boolean lightStatusBar,
+        Boolean lightNavigationBar,
+        Boolean navigationBarContrastEnforced,
+        Integer systemBarsBehavior,
+        Boolean systemBarsHidden,
+        Integer systemUiVisibility,
+        Boolean systemBarsVisible
+    ) {
+        this.marginTop = marginTop;
+        this.marginLeft = marginLeft;
+        this.marginRight = marginRight;
+        this.marginBottom = marginBottom;
+        this.systemBars = systemBars;
+        this.displayCutout = displayCutout;
+        this.ime = ime;
+        this.systemGestures = systemGestures;
+        this.imeVisible = imeVisible;
+        this.navigationModeKnown = navigationModeKnown;
+        this.gestureNavigation = gestureNavigation;
+        this.statusBarColor = statusBarColor;
+        this.navigationBarColor = navigationBarColor;
+        this.lightStatusBar = lightStatusBar;
+        this.lightNavigationBar = lightNavigationBar;
+        this.navigationBarContrastEnforced = navigationBarContrastEnforced;
+        this.systemBarsBehavior = systemBarsBehavior;
+        this.systemBarsHidden = systemBarsHidden;
+        this.systemUiVisibility = systemUiVisibility;
+        this.systemBarsVisible = systemBarsVisible;
+    }
+
+    /**
+     * Return a copy with the given web view margins.
+     */
+    @NonNull
+    public EdgeToEdgeState withMargins(int top, int left, int right, int bottom) {
+        if (marginTop == top && marginLeft == left && marginRight == right && marginBottom == bottom) {
+            return this;
+        }
+        return new EdgeToEdgeState(
+            top, left, right, bottom,
+            systemBars, displayCutout, ime, systemGestures, imeVisible,
+            navigationModeKnown, gestureNavigation,
+            statusBarColor, navigationBarColor, lightStatusBar, lightNavigationBar,
+            navigationBarContrastEnforced, systemBarsBehavior, systemBarsHidden, systemUiVisibility,
+            systemBarsVisible
+        );
+    }
+
+    /**
+     * Return a copy with the insets per type of the given reader.
+     */
+    @NonNull
+    public EdgeToEdgeState withInsets(@NonNull InsetsReader insets) {
+        boolean unchanged =
+            insets.matches(InsetsReader.SYSTEM_BARS, systemBars) &&
+            insets.matches(InsetsReader.DISPLAY_CUTOUT, displayCutout) &&
+            insets.matches(InsetsReader.IME, ime) &&
+            insets.matches(InsetsReader.SYSTEM_GESTURES, systemGestures) &&
+            insets.isImeVisible() == imeVisible;
+        if (unchanged) {
+            // Steady state dispatches do not allocate
+            return this;
+        }
+        return new EdgeToEdgeState(
+            marginTop, marginLeft, marginRight, marginBottom,
+            insets.toInsets(InsetsReader.SYSTEM_BARS),
+            insets.toInsets(InsetsReader.DISPLAY_CUTOUT),
+            insets.toInsets(InsetsReader.IME),
+            insets.toInsets(InsetsReader.SYSTEM_GESTURES),
+            insets.isImeVisible(),
+            navigationModeKnown, gestureNavigation,
+            statusBarColor, navigationBarColor, lightStatusBar, lightNavigationBar,
+            navigationBarContrastEnforced, systemBarsBehavior, systemBarsHidden, systemUiVisibility,
+            systemBarsVisible
+        );
+    }
+
+    /**
+     * Return a copy with the given navigation mode.
+     */
+    @NonNull
+    public EdgeToEdgeState withNavigationMode(boolean gestureNavigation) {
+        if (navigationModeKnown && this.gestureNavigation == gestureNavigation) {
+            return this;
+        }
+        return new EdgeToEdgeState(
+            marginTop, marginLeft, marginRight, marginBottom,
+            systemBars, displayCutout, ime, systemGestures, imeVisible,
+            true, gestureNavigation,
+            statusBarColor, navigationBarColor, lightStatusBar, lightNavigationBar,
+            navigationBarContrastEnforced, systemBarsBehavior, systemBarsHidden, systemUiVisibility,
+            systemBarsVisible
+        );
+    }
+
+    /**
+     * Return a copy with the given actual visibility of the system bars.
+     */
+    @NonNull
+    public EdgeToEdgeState withSystemBarsVisible(boolean visible) {
+        if (systemBarsVisible != null && systemBarsVisible == visible) {
+            return this;
+        }
+        return new EdgeToEdgeState(
+            marginTop, marginLeft, marginRight, marginBottom,
+            systemBars, displayCutout, ime, systemGestures, imeVisible,
+            navigationModeKnown, gestureNavigation,
+            statusBarColor, navigationBarColor, lightStatusBar, lightNavigationBar,
+            navigationBarContrastEnforced, systemBarsBehavior, systemBarsHidden, systemUiVisibility,
+            visible
+        );
+    }
+
+    /**
+     * Return a copy with the values of the given window state store.
+     */
+    @NonNull
+    public EdgeToEdgeState withWindowState(@NonNull WindowStateStore windowState) {
+        return new EdgeToEdgeState(
+            marginTop, marginLeft, marginRight, marginBottom,
+            systemBars, displayCutout, ime, systemGestures, imeVisible,
+            navigationModeKnown, gestureNavigation,
+            windowState.getStatusBarColor(),
+            windowState.getNavigationBarColor(),
+            windowState.getLightStatusBar(),
+            windowState.getLightNavigationBar(),
+            windowState.getNavigationBarContrastEnforced(),
+            windowState.getSystemBarsBehavior(),
+            windowState.getSystemBarsHidden(),
+            windowState.getSystemUiVisibility(),
+            systemBarsVisible
+        );
+    }
+
+    public int getMarginTop() {
+        return marginTop;
+    }
+
+    public int getMarginLeft() {
+        return marginLeft;
+    }
+
+    public int getMarginRight() {
+        return marginRight;
+    }
+
+    public int getMarginBottom() {
+        return marginBottom;
+    }
+
+    @NonNull
+    public Insets getSystemBars() {
+        return systemBars;
+    }
+
+    @NonNull
+    public Insets getDisplayCutout() {
+        return displayCutout;
+    }
+
+    @NonNull
+    public Insets getIme() {
+        return ime;
+    }
+
+    @NonNull
+    public Insets getSystemGestures() {
+        return systemGestures;
+    }
+
+    public boolean isImeVisible() {
+        return imeVisible;
+    }
+
+    public boolean isNavigationModeKnown() {
+        return navigationModeKnown;
+    }
+
+    public boolean isGestureNavigation() {
+        return gestureNavigation;
+    }
+
+    public boolean isImmersive() {
+        return Boolean.TRUE.equals(systemBarsHidden);
+    }
+
+    /**
+     * Whether the system bars are actually on screen, null until the first dispatch
+     */
+    @Nullable
+    public Boolean getSystemBarsVisible() {
+        return systemBarsVisible;
+    }
+
+    @Nullable
+    public Integer getStatusBarColor() {
+        return statusBarColor;
+    }
+
+    @Nullable
+    public Integer getNavigationBarColor() {
+        return navigationBarColor;
+    }
+
+    @Nullable
+    public Boolean getLightStatusBar() {
+        return lightStatusBar;
+    }
+
+    @Nullable
+    public Boolean getLightNavigationBar() {
+        return lightNavigationBar;
+    }
+
+    @Nullable
+    public Boolean getNavigationBarContrastEnforced() {
+        return navigationBarContrastEnforced;
+    }
+
+    @Nullable
+    public Integer getSystemBarsBehavior() {
+        return systemBarsBehavior;
+    }
+
+    @Nullable
+    public Integer getSystemUiVisibility() {
+        return systemUiVisibility;
+    }
+}
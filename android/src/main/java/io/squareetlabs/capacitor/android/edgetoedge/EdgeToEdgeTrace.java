@@ -0,0 +1,65 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.os.Build;
+import android.os.Trace;
+import androidx.annotation.NonNull;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named trace sections for Perfetto and systrace, enabled with the trace option of the plugin configuration.
+ * When disabled every method returns on a static flag, so callers only have to guard the
+ * construction of dynamic section names with {@link #isEnabled()}.
+ */
+public final class EdgeToEdgeTrace {
+
+    private static final String PREFIX = "EdgeToEdge.";
+
+    private static volatile boolean enabled = false;
+
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+
+    private EdgeToEdgeTrace() {}
+
+    public static void setEnabled(boolean enabled) {
+        EdgeToEdgeTrace.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Begin a section on the current thread, must be paired with {@link #endSection()} on the same thread
+     * @param name constant section name, without the plugin prefix
+     */
+    public static void beginSection(@NonNull String name) {
+        if (enabled) {
+            Trace.beginSection(PREFIX + name);
+        }
+    }
+
+    public static void endSection() {
+        if (enabled) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Begin an async slice that may end on another thread
+     * @return the cookie to pass to {@link #endAsyncSection(String, int)}, or 0 if tracing is disabled
+     */
+    public static int beginAsyncSection(@NonNull String name) {
+        if (!enabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return 0;
+        }
+        int cookie = nextCookie.incrementAndGet();
+        Trace.beginAsyncSection(PREFIX + name, cookie);
+        return cookie;
+    }
+
+    public static void endAsyncSection(@NonNull String name, int cookie) {
+        if (cookie != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(PREFIX + name, cookie);
+        }
+    }
+}
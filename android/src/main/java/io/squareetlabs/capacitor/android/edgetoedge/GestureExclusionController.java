@@ -0,0 +1,126 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.view.View;
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Excludes regions of the web view from the system back gesture.
+ * The rects are requested in CSS pixels, converted to web view pixels and clipped to the platform budget of
+ * 200dp of excluded height per side edge, earlier rects taking precedence. The result is compared with the
+ * set applied last, so View#setSystemGestureExclusionRects is only called when the excluded regions change.
+ * Must only be used on the UI thread.
+ */
+public class GestureExclusionController {
+
+    /**
+     * Height of the exclusion rects the platform honors along each side edge
+     */
+    private static final int EDGE_BUDGET_DP = 200;
+
+    @NonNull
+    private final View view;
+
+    // Requested rects in web view pixels, before clipping to the budget
+    @NonNull
+    private List<Rect> requested = Collections.emptyList();
+
+    @NonNull
+    private List<Rect> applied = Collections.emptyList();
+
+    // Width of the back gesture areas along the left and right edges of the web view
+    private int leftEdgeWidth = 0;
+    private int rightEdgeWidth = 0;
+
+    public GestureExclusionController(@NonNull View view) {
+        this.view = view;
+    }
+
+    /**
+     * Set the regions to exclude from the back gesture
+     * @param rects rects in CSS pixels relative to the web view
+     */
+    public void setRects(@NonNull List<RectF> rects) {
+        float density = view.getResources().getDisplayMetrics().density;
+        List<Rect> converted = new ArrayList<>(rects.size());
+        for (RectF rect : rects) {
+            converted.add(
+                new Rect(
+                    Math.round(rect.left * density),
+                    Math.round(rect.top * density),
+                    Math.round(rect.right * density),
+                    Math.round(rect.bottom * density)
+                )
+            );
+        }
+        requested = converted;
+        apply();
+    }
+
+    /**
+     * Update the width of the back gesture areas, in web view pixels
+     */
+    public void updateGestureEdges(int leftEdgeWidth, int rightEdgeWidth) {
+        if (this.leftEdgeWidth == leftEdgeWidth && this.rightEdgeWidth == rightEdgeWidth) {
+            return;
+        }
+        this.leftEdgeWidth = leftEdgeWidth;
+        this.rightEdgeWidth = rightEdgeWidth;
+        if (!requested.isEmpty()) {
+            apply();
+        }
+    }
+
+    private void apply() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return;
+        }
+        List<Rect> clipped = clipToBudget(requested);
+        if (clipped.equals(applied)) {
+            return;
+        }
+        applied = clipped;
+        view.setSystemGestureExclusionRects(clipped);
+    }
+
+    /**
+     * Clip the rects that overlap a back gesture area to the excluded height left on that edge
+     */
+    @NonNull
+    private List<Rect> clipToBudget(@NonNull List<Rect> rects) {
+        int budget = Math.round(EDGE_BUDGET_DP * view.getResources().getDisplayMetrics().density);
+        int leftRemaining = budget;
+        int rightRemaining = budget;
+        int width = view.getWidth();
+        List<Rect> result = new ArrayList<>(rects.size());
+        for (Rect rect : rects) {
+            if (rect.isEmpty()) {
+                continue;
+            }
+            boolean onLeftEdge = rect.left < leftEdgeWidth;
+            boolean onRightEdge = rightEdgeWidth > 0 && rect.right > width - rightEdgeWidth;
+            if (!onLeftEdge && !onRightEdge) {
+                result.add(rect);
+                continue;
+            }
+            int remaining = Math.min(onLeftEdge ? leftRemaining : budget, onRightEdge ? rightRemaining : budget);
+            if (remaining <= 0) {
+                continue;
+            }
+            int height = Math.min(rect.height(), remaining);
+            result.add(height == rect.height() ? rect : new Rect(rect.left, rect.top, rect.right, rect.top + height));
+            if (onLeftEdge) {
+                leftRemaining -= height;
+            }
+            if (onRightEdge) {
+                rightRemaining -= height;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.WindowInsetsControllerCompat;
+
+/**
+ * Options of enterImmersiveMode, parsed and validated on the bridge thread.
+ * Shared by the plugin methods and the batch operations, so a batch accepts and applies the same values.
+ */
+public final class ImmersiveModeOptions {
+
+    @Nullable
+    private final Integer behavior;
+
+    @Nullable
+    private final Long autoHideDelayMs;
+
+    private ImmersiveModeOptions(@Nullable Integer behavior, @Nullable Long autoHideDelayMs) {
+        this.behavior = behavior;
+        this.autoHideDelayMs = autoHideDelayMs;
+    }
+
+    /**
+     * @param behaviorName "default" or "showTransientBarsBySwipe", null to keep the current behavior
+     * @param autoHideDelayMs delay after which revealed bars are hidden again, null to keep the current delay
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    @NonNull
+    public static ImmersiveModeOptions parse(@Nullable String behaviorName, @Nullable Long autoHideDelayMs) {
+        Integer behavior = null;
+        if (behaviorName != null) {
+            behavior = parseBehavior(behaviorName);
+            if (behavior == null) {
+                throw new IllegalArgumentException("Invalid behavior: " + behaviorName);
+            }
+        }
+        if (autoHideDelayMs != null && autoHideDelayMs < 0) {
+            throw new IllegalArgumentException("autoHideDelayMs must not be negative");
+        }
+        return new ImmersiveModeOptions(behavior, autoHideDelayMs);
+    }
+
+    /**
+     * Parse a system bars behavior name into one of the WindowInsetsControllerCompat.BEHAVIOR_* constants
+     * @return the constant, or null if the name is unknown
+     */
+    @Nullable
+    public static Integer parseBehavior(@NonNull String behavior) {
+        switch (behavior) {
+            case "default":
+                return WindowInsetsControllerCompat.BEHAVIOR_DEFAULT;
+            case "showTransientBarsBySwipe":
+                return WindowInsetsControllerCompat.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Enter immersive mode with these options. Must be called on the UI thread.
+     */
+    public void enter(@NonNull EdgeToEdge implementation) {
+        implementation.enterImmersiveMode(behavior, autoHideDelayMs);
+    }
+}
@@ -0,0 +1,100 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Applies insets to a view as margins, only touching the layout params when a value changed.
+ * Every call to setLayoutParams forces a requestLayout of the web view, which makes Chromium
+ * resize its viewport, so redundant dispatches are skipped and counted instead.
+ */
+public class InsetsApplier {
+
+    private boolean hasApplied = false;
+
+    private int top;
+    private int left;
+    private int right;
+    private int bottom;
+
+    private long appliedCount = 0;
+    private long skippedCount = 0;
+
+    /**
+     * Apply the given margins to the view.
+     * @return true if the layout params were updated, false if the dispatch was a no-op
+     */
+    public boolean apply(View view, int top, int left, int right, int bottom) {
+        ViewGroup.MarginLayoutParams mlp = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+        boolean unchanged =
+            hasApplied &&
+            this.top == top &&
+            this.left == left &&
+            this.right == right &&
+            this.bottom == bottom &&
+            mlp.topMargin == top &&
+            mlp.leftMargin == left &&
+            mlp.rightMargin == right &&
+            mlp.bottomMargin == bottom;
+        if (unchanged) {
+            skippedCount++;
+            return false;
+        }
+
+        mlp.topMargin = top;
+        mlp.leftMargin = left;
+        mlp.rightMargin = right;
+        mlp.bottomMargin = bottom;
+        view.setLayoutParams(mlp);
+
+        this.top = top;
+        this.left = left;
+        this.right = right;
+        this.bottom = bottom;
+        hasApplied = true;
+        appliedCount++;
+        return true;
+    }
+
+    /**
+     * Forget the last applied margins so the next dispatch is always applied.
+     */
+    public void invalidate() {
+        hasApplied = false;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+
+    /**
+     * Number of dispatches that changed the layout params.
+     */
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * Number of dispatches that were skipped because the margins did not change.
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public void resetCounters() {
+        appliedCount = 0;
+        skippedCount = 0;
+    }
+}
@@ -0,0 +1,165 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.View;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.WindowInsetsCompat;
+
+/**
+ * Limits how often insets are applied while the window is resized continuously,
+ * e.g. while a split-screen divider is dragged or a freeform window is resized.
+ * A dispatch is part of a resize storm when it follows the previous one within {@link #STORM_INTERVAL_MS} and the
+ * root view size changed in between. Keyboard transitions, which do not resize the root view in edge-to-edge mode
+ * and change the IME visibility, and single changes such as a rotation are applied right away.
+ * Storm dispatches are held instead of applied: depending on the mode, the latest held dispatch is applied on the
+ * next frame or once no dispatch arrived for {@link #SETTLE_DELAY_MS}. Held dispatches replaced by a newer one with
+ * different insets are dropped and counted, the latest one is always applied exactly once.
+ * Must only be used on the UI thread.
+ */
+public class InsetsDispatchDebouncer implements Choreographer.FrameCallback, Runnable {
+
+    public interface Target {
+        void applyWindowInsets(@NonNull View view, @NonNull WindowInsetsCompat windowInsets);
+    }
+
+    /**
+     * Dispatches closer together than this are part of a resize storm
+     */
+    static final long STORM_INTERVAL_MS = 100;
+
+    /**
+     * Time without a dispatch after which the insets of a storm are settled
+     */
+    static final long SETTLE_DELAY_MS = 150;
+
+    @NonNull
+    private final EdgeToEdgeConfig.ResizeStormMode mode;
+
+    @NonNull
+    private final Target target;
+
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    private final Choreographer choreographer = Choreographer.getInstance();
+
+    private long lastDispatchMs = 0;
+
+    // Root view size and IME visibility at the previous dispatch
+    private int lastRootWidth;
+    private int lastRootHeight;
+    private boolean lastImeVisible;
+
+    private boolean frameScheduled = false;
+
+    @Nullable
+    private View pendingView;
+
+    @Nullable
+    private WindowInsetsCompat pendingInsets;
+
+    private long droppedCount = 0;
+
+    public InsetsDispatchDebouncer(@NonNull EdgeToEdgeConfig.ResizeStormMode mode, @NonNull Target target) {
+        this.mode = mode;
+        this.target = target;
+    }
+
+    /**
+     * Apply the dispatch now, or hold it when it is part of a resize storm
+     */
+    public void onDispatch(@NonNull View view, @NonNull WindowInsetsCompat windowInsets) {
+        if (mode == EdgeToEdgeConfig.ResizeStormMode.NONE) {
+            target.applyWindowInsets(view, windowInsets);
+            return;
+        }
+        long now = SystemClock.uptimeMillis();
+        View root = view.getRootView();
+        int rootWidth = root.getWidth();
+        int rootHeight = root.getHeight();
+        boolean imeVisible = windowInsets.isVisible(WindowInsetsCompat.Type.ime());
+        boolean storm =
+            lastDispatchMs != 0 &&
+            now - lastDispatchMs < STORM_INTERVAL_MS &&
+            (rootWidth != lastRootWidth || rootHeight != lastRootHeight) &&
+            imeVisible == lastImeVisible;
+        lastDispatchMs = now;
+        lastRootWidth = rootWidth;
+        lastRootHeight = rootHeight;
+        lastImeVisible = imeVisible;
+
+        // An equal re-dispatch replacing the held one is not an intermediate state
+        if (pendingInsets != null && !pendingInsets.equals(windowInsets)) {
+            droppedCount++;
+        }
+        if (!storm) {
+            // Supersedes the held dispatch, if any
+            cancel();
+            target.applyWindowInsets(view, windowInsets);
+            return;
+        }
+
+        pendingView = view;
+        pendingInsets = windowInsets;
+        if (mode == EdgeToEdgeConfig.ResizeStormMode.FRAME) {
+            if (!frameScheduled) {
+                frameScheduled = true;
+                choreographer.postFrameCallback(this);
+            }
+        } else {
+            // Restart the settle delay with every dispatch of the storm
+            handler.removeCallbacks(this);
+            handler.postDelayed(this, SETTLE_DELAY_MS);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        flush();
+    }
+
+    @Override
+    public void run() {
+        flush();
+    }
+
+    /**
+     * Drop the held dispatch, e.g. when the insets are applied directly or removed
+     */
+    public void cancel() {
+        if (frameScheduled) {
+            frameScheduled = false;
+            choreographer.removeFrameCallback(this);
+        }
+        handler.removeCallbacks(this);
+        pendingView = null;
+        pendingInsets = null;
+    }
+
+    /**
+     * Number of dispatches dropped because a newer one with different insets replaced them during a resize storm
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public void resetCounters() {
+        droppedCount = 0;
+    }
+
+    private void flush() {
+        View view = pendingView;
+        WindowInsetsCompat windowInsets = pendingInsets;
+        pendingView = null;
+        pendingInsets = null;
+        if (view != null && windowInsets != null) {
+            target.applyWindowInsets(view, windowInsets);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+import com.getcapacitor.JSObject;
+
+/**
+ * Pushes inset changes to JavaScript as "insetsChanged" events.
+ * Dispatches are recorded into primitive fields and coalesced so that at most one event
+ * is sent per Choreographer frame. Delivery is paused while the activity is in the background
+ * and the latest state is sent once it comes back.
+ */
+public class InsetsEventEmitter implements Choreographer.FrameCallback {
+
+    public static final String EVENT_INSETS_CHANGED = "insetsChanged";
+
+    private static final int SYSTEM_BARS = InsetsReader.SYSTEM_BARS;
+    private static final int DISPLAY_CUTOUT = InsetsReader.DISPLAY_CUTOUT;
+    private static final int IME = InsetsReader.IME;
+    private static final int SYSTEM_GESTURES = InsetsReader.SYSTEM_GESTURES;
+    // The types up to the tappable element are sent
+    private static final int SIZE = InsetsReader.TAPPABLE_ELEMENT;
+
+    @NonNull
+    private final EdgeToEdgePlugin plugin;
+
+    private final int[] current = new int[SIZE];
+    private final int[] emitted = new int[SIZE];
+    private boolean currentImeVisible = false;
+    private boolean emittedImeVisible = false;
+    private boolean hasEmitted = false;
+
+    private boolean frameScheduled = false;
+    private boolean paused = false;
+
+    public InsetsEventEmitter(@NonNull EdgeToEdgePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Record the insets of a dispatch and schedule an event for the next frame if anything changed.
+     * Must be called on the main thread.
+     */
+    public void onInsetsDispatched(@NonNull InsetsReader insets) {
+        System.arraycopy(insets.values, 0, current, 0, SIZE);
+        currentImeVisible = insets.isImeVisible();
+        scheduleIfChanged();
+    }
+
+    /**
+     * Pause or resume delivery. Changes recorded while paused are sent on resume.
+     * Must be called on the main thread.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        if (paused) {
+            cancel();
+        } else {
+            scheduleIfChanged();
+        }
+    }
+
+    /**
+     * Drop any pending frame callback.
+     */
+    public void cancel() {
+        if (frameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            frameScheduled = false;
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        if (paused || !hasChanged()) {
+            return;
+        }
+        System.arraycopy(current, 0, emitted, 0, SIZE);
+        emittedImeVisible = currentImeVisible;
+        hasEmitted = true;
+
+        JSObject result = new JSObject();
+        result.put("systemBars", toJSObject(emitted, SYSTEM_BARS));
+        result.put("displayCutout", toJSObject(emitted, DISPLAY_CUTOUT));
+        result.put("ime", toJSObject(emitted, IME));
+        result.put("systemGestures", toJSObject(emitted, SYSTEM_GESTURES));
+        result.put("imeVisible", emittedImeVisible);
+        plugin.notifyEvent(EVENT_INSETS_CHANGED, result);
+    }
+
+    private void scheduleIfChanged() {
+        if (paused || frameScheduled || !hasChanged()) {
+            return;
+        }
+        frameScheduled = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private boolean hasChanged() {
+        if (!hasEmitted || currentImeVisible != emittedImeVisible) {
+            return true;
+        }
+        for (int i = 0; i < SIZE; i++) {
+            if (current[i] != emitted[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JSObject toJSObject(int[] values, int offset) {
+        JSObject insets = new JSObject();
+        insets.put("top", values[offset + InsetsReader.TOP]);
+        insets.put("left", values[offset + InsetsReader.LEFT]);
+        insets.put("right", values[offset + InsetsReader.RIGHT]);
+        insets.put("bottom", values[offset + InsetsReader.BOTTOM]);
+        return insets;
+    }
+}
@@ -0,0 +1,106 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.WindowInsetsCompat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves native views and callbacks from the single insets dispatch of the web view,
+ * so they do not install competing listeners or request extra dispatch passes.
+ * Subscribers added after a dispatch receive its insets right away.
+ * Must only be used on the UI thread.
+ */
+public class InsetsFanOut {
+
+    // Inset types read by InsetsReader, in offset order
+    static final int TYPE_COUNT = 4;
+
+    @NonNull
+    private final List<InsetsSubscription> subscriptions = new ArrayList<>();
+
+    // Reader of the last dispatch, owned by the dispatch path and not refilled outside of it
+    @Nullable
+    private InsetsReader lastInsets;
+
+    /**
+     * Subscribe a view or callback
+     * @param types a combination of WindowInsetsCompat.Type.systemBars(), displayCutout(), ime() and systemGestures()
+     * @throws IllegalArgumentException if the types are not supported or the view does not match the strategy
+     */
+    @NonNull
+    public InsetsSubscription add(
+        int types,
+        @NonNull InsetsSubscription.Strategy strategy,
+        @Nullable View view,
+        @Nullable InsetsSubscription.Callback callback
+    ) {
+        int readerTypes = toReaderTypes(types);
+        if (strategy == InsetsSubscription.Strategy.CALLBACK) {
+            if (callback == null) {
+                throw new IllegalArgumentException("callback is required");
+            }
+        } else if (view == null) {
+            throw new IllegalArgumentException("view is required");
+        } else if (strategy == InsetsSubscription.Strategy.MARGIN && !(view.getLayoutParams() instanceof ViewGroup.MarginLayoutParams)) {
+            throw new IllegalArgumentException("view must have margin layout params");
+        }
+        InsetsSubscription subscription = new InsetsSubscription(readerTypes, strategy, view, callback);
+        subscriptions.add(subscription);
+        if (lastInsets != null) {
+            subscription.dispatch(lastInsets);
+        }
+        return subscription;
+    }
+
+    /**
+     * Unsubscribe and restore the margins or padding the view had when it subscribed
+     */
+    public void remove(@NonNull InsetsSubscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            subscription.restore();
+        }
+    }
+
+    /**
+     * Apply the insets of a dispatch to every subscriber whose insets changed
+     * @return the number of subscribers that were updated
+     */
+    public int dispatch(@NonNull InsetsReader insets) {
+        lastInsets = insets;
+        int updated = 0;
+        // Indexed loop, the dispatch path does not allocate an iterator
+        for (int i = 0; i < subscriptions.size(); i++) {
+            if (subscriptions.get(i).dispatch(insets)) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    private static int toReaderTypes(int types) {
+        int systemBars = WindowInsetsCompat.Type.systemBars();
+        int supported = systemBars | WindowInsetsCompat.Type.displayCutout() | WindowInsetsCompat.Type.ime() | WindowInsetsCompat.Type.systemGestures();
+        // Individual bars are not read separately, so only the whole systemBars() type is accepted
+        if (types == 0 || (types & ~supported) != 0 || ((types & systemBars) != 0 && (types & systemBars) != systemBars)) {
+            throw new IllegalArgumentException("Unsupported inset types: " + types);
+        }
+        int readerTypes = 0;
+        if ((types & systemBars) != 0) {
+            readerTypes |= 1 << (InsetsReader.SYSTEM_BARS / 4);
+        }
+        if ((types & WindowInsetsCompat.Type.displayCutout()) != 0) {
+            readerTypes |= 1 << (InsetsReader.DISPLAY_CUTOUT / 4);
+        }
+        if ((types & WindowInsetsCompat.Type.ime()) != 0) {
+            readerTypes |= 1 << (InsetsReader.IME / 4);
+        }
+        if ((types & WindowInsetsCompat.Type.systemGestures()) != 0) {
+            readerTypes |= 1 << (InsetsReader.SYSTEM_GESTURES / 4);
+        }
+        return readerTypes;
+    }
+}
@@ -0,0 +1,104 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.os.Build;
+import androidx.annotation.NonNull;
+import androidx.core.graphics.Insets;
+import androidx.core.view.WindowInsetsCompat;
+
+/**
+ * Reads the insets of a dispatch into reused primitive fields, one read per inset type,
+ * so the dispatch path does not create derived objects or read the same type twice.
+ * Values are stored as top, left, right, bottom at the offset of each type.
+ * Must only be used on the UI thread.
+ */
+public final class InsetsReader {
+
+    public static final int SYSTEM_BARS = 0;
+    public static final int DISPLAY_CUTOUT = 4;
+    public static final int IME = 8;
+    public static final int SYSTEM_GESTURES = 12;
+    // Tappable element insets ignoring visibility, only read on Android 10 and higher
+    public static final int TAPPABLE_ELEMENT = 16;
+    public static final int SIZE = 20;
+
+    public static final int TOP = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int BOTTOM = 3;
+
+    final int[] values = new int[SIZE];
+
+    private boolean imeVisible;
+
+    private boolean systemBarsVisible;
+
+    /**
+     * Read the insets of the given dispatch, replacing the previous values
+     */
+    public void read(@NonNull WindowInsetsCompat windowInsets) {
+        write(SYSTEM_BARS, windowInsets.getInsets(WindowInsetsCompat.Type.systemBars()));
+        write(DISPLAY_CUTOUT, windowInsets.getInsets(WindowInsetsCompat.Type.displayCutout()));
+        write(IME, windowInsets.getInsets(WindowInsetsCompat.Type.ime()));
+        write(SYSTEM_GESTURES, windowInsets.getInsets(WindowInsetsCompat.Type.systemGestures()));
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            write(TAPPABLE_ELEMENT, windowInsets.getInsetsIgnoringVisibility(WindowInsetsCompat.Type.tappableElement()));
+        } else {
+            write(TAPPABLE_ELEMENT, Insets.NONE);
+        }
+        imeVisible = windowInsets.isVisible(WindowInsetsCompat.Type.ime());
+        // isVisible(systemBars()) is only true when every bar is visible
+        systemBarsVisible =
+            windowInsets.isVisible(WindowInsetsCompat.Type.statusBars()) ||
+            windowInsets.isVisible(WindowInsetsCompat.Type.navigationBars());
+    }
+
+    /**
+     * @param type offset of the inset type, e.g. {@link #SYSTEM_BARS}
+     * @param side {@link #TOP}, {@link #LEFT}, {@link #RIGHT} or {@link #BOTTOM}
+     */
+    public int get(int type, int side) {
+        return values[type + side];
+    }
+
+    /**
+     * The system bars and display cutout insets combined, the area the web view has to avoid
+     */
+    public int getSafeArea(int side) {
+        return Math.max(values[SYSTEM_BARS + side], values[DISPLAY_CUTOUT + side]);
+    }
+
+    public boolean isImeVisible() {
+        return imeVisible;
+    }
+
+    /**
+     * Whether the status bar or the navigation bar is on screen
+     */
+    public boolean isSystemBarsVisible() {
+        return systemBarsVisible;
+    }
+
+    /**
+     * Whether the values of the given type equal the given insets
+     */
+    public boolean matches(int type, @NonNull Insets insets) {
+        return (
+            values[type + TOP] == insets.top &&
+            values[type + LEFT] == insets.left &&
+            values[type + RIGHT] == insets.right &&
+            values[type + BOTTOM] == insets.bottom
+        );
+    }
+
+    @NonNull
+    public Insets toInsets(int type) {
+        return Insets.of(values[type + LEFT], values[type + TOP], values[type + RIGHT], values[type + BOTTOM]);
+    }
+
+    private void write(int type, Insets insets) {
+        values[type + TOP] = insets.top;
+        values[type + LEFT] = insets.left;
+        values[type + RIGHT] = insets.right;
+        values[type + BOTTOM] = insets.bottom;
+    }
+}
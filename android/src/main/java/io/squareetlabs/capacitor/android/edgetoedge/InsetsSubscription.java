@@ -0,0 +1,162 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A native view or callback served from the insets dispatch of the web view.
+ * The insets of the subscribed types are combined per side and only applied when they changed.
+ * Margins and padding are added to the values the view had when it subscribed.
+ * Created with {@link EdgeToEdge#addInsetsSubscriber} and must only be used on the UI thread.
+ */
+public final class InsetsSubscription {
+
+    /**
+     * How the insets are applied
+     */
+    public enum Strategy {
+        /**
+         * Add the insets to the margins of the view
+         */
+        MARGIN,
+        /**
+         * Add the insets to the padding of the view
+         */
+        PADDING,
+        /**
+         * Pass the insets to a callback
+         */
+        CALLBACK
+    }
+
+    public interface Callback {
+        /**
+         * Called with the combined insets of the subscribed types whenever they change, in pixels
+         */
+        void onInsets(int top, int left, int right, int bottom);
+    }
+
+    // Inset types offsets of InsetsReader, one bit per type
+    private final int readerTypes;
+
+    @NonNull
+    private final Strategy strategy;
+
+    @Nullable
+    private final View view;
+
+    @Nullable
+    private final Callback callback;
+
+    // Margins or padding of the view when it subscribed
+    private final int baseTop;
+    private final int baseLeft;
+    private final int baseRight;
+    private final int baseBottom;
+
+    private boolean hasApplied = false;
+    private int top;
+    private int left;
+    private int right;
+    private int bottom;
+
+    InsetsSubscription(int readerTypes, @NonNull Strategy strategy, @Nullable View view, @Nullable Callback callback) {
+        this.readerTypes = readerTypes;
+        this.strategy = strategy;
+        this.view = view;
+        this.callback = callback;
+        if (strategy == Strategy.MARGIN && view != null) {
+            ViewGroup.MarginLayoutParams mlp = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+            baseTop = mlp.topMargin;
+            baseLeft = mlp.leftMargin;
+            baseRight = mlp.rightMargin;
+            baseBottom = mlp.bottomMargin;
+        } else if (strategy == Strategy.PADDING && view != null) {
+            baseTop = view.getPaddingTop();
+            baseLeft = view.getPaddingLeft();
+            baseRight = view.getPaddingRight();
+            baseBottom = view.getPaddingBottom();
+        } else {
+            baseTop = 0;
+            baseLeft = 0;
+            baseRight = 0;
+            baseBottom = 0;
+        }
+    }
+
+    @NonNull
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    @Nullable
+    public View getView() {
+        return view;
+    }
+
+    /**
+     * Apply the insets of the given dispatch if they changed since the last one
+     * @return true if the view or callback was updated
+     */
+    boolean dispatch(@NonNull InsetsReader insets) {
+        int top = combine(insets, InsetsReader.TOP);
+        int left = combine(insets, InsetsReader.LEFT);
+        int right = combine(insets, InsetsReader.RIGHT);
+        int bottom = combine(insets, InsetsReader.BOTTOM);
+        if (hasApplied && this.top == top && this.left == left && this.right == right && this.bottom == bottom) {
+            return false;
+        }
+        this.top = top;
+        this.left = left;
+        this.right = right;
+        this.bottom = bottom;
+        hasApplied = true;
+        apply(baseTop + top, baseLeft + left, baseRight + right, baseBottom + bottom);
+        return true;
+    }
+
+    /**
+     * Restore the margins or padding the view had when it subscribed
+     */
+    void restore() {
+        if (hasApplied && strategy != Strategy.CALLBACK) {
+            apply(baseTop, baseLeft, baseRight, baseBottom);
+        }
+        hasApplied = false;
+    }
+
+    private void apply(int top, int left, int right, int bottom) {
+        switch (strategy) {
+            case MARGIN: {
+                ViewGroup.MarginLayoutParams mlp = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+                mlp.topMargin = top;
+                mlp.leftMargin = left;
+                mlp.rightMargin = right;
+                mlp.bottomMargin = bottom;
+                view.setLayoutParams(mlp);
+                break;
+            }
+            case PADDING:
+                view.setPadding(left, top, right, bottom);
+                break;
+            case CALLBACK:
+                callback.onInsets(top, left, right, bottom);
+                break;
+        }
+    }
+
+    /**
+     * The largest inset of the subscribed types on one side
+     */
+    private int combine(@NonNull InsetsReader insets, int side) {
+        int value = 0;
+        for (int type = 0; type < InsetsFanOut.TYPE_COUNT; type++) {
+            if ((readerTypes & (1 << type)) != 0) {
+                value = Math.max(value, insets.get(type * 4, side));
+            }
+        }
+        return value;
+    }
+}
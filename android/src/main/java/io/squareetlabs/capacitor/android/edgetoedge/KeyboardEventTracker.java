@@ -0,0 +1,147 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import androidx.annotation.NonNull;
+import com.getcapacitor.JSObject;
+
+/**
+ * Emits keyboardWillShow, keyboardWillHide, keyboardDidShow and keyboardDidHide events.
+ * When the IME animates, the "will" events are sent from onStart with the target height and the
+ * animation duration, before the first animation frame. When it does not, both events are sent
+ * together as soon as the new insets are dispatched.
+ * The last observed keyboard height is cached per orientation and persisted across launches.
+ * Must only be used on the UI thread, except for the cached heights which may be read from any thread.
+ */
+public class KeyboardEventTracker {
+
+    public static final String EVENT_KEYBOARD_WILL_SHOW = "keyboardWillShow";
+    public static final String EVENT_KEYBOARD_WILL_HIDE = "keyboardWillHide";
+    public static final String EVENT_KEYBOARD_DID_SHOW = "keyboardDidShow";
+    public static final String EVENT_KEYBOARD_DID_HIDE = "keyboardDidHide";
+
+    private static final String PREFERENCES_NAME = "io.squareetlabs.capacitor.android.edgetoedge.keyboard";
+    private static final String KEY_PORTRAIT_HEIGHT = "portraitHeight";
+    private static final String KEY_LANDSCAPE_HEIGHT = "landscapeHeight";
+
+    @NonNull
+    private final EdgeToEdgePlugin plugin;
+
+    @NonNull
+    private final SharedPreferences preferences;
+
+    private boolean hasVisibility = false;
+    private boolean visible = false;
+
+    // Last dispatched state, which is the target state while an animation is starting
+    private boolean dispatchedVisible = false;
+    private int dispatchedHeight = 0;
+
+    private boolean animating = false;
+
+    private volatile int portraitHeight;
+    private volatile int landscapeHeight;
+
+    public KeyboardEventTracker(@NonNull EdgeToEdgePlugin plugin) {
+        this.plugin = plugin;
+        this.preferences = plugin.getContext().getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+        this.portraitHeight = preferences.getInt(KEY_PORTRAIT_HEIGHT, 0);
+        this.landscapeHeight = preferences.getInt(KEY_LANDSCAPE_HEIGHT, 0);
+    }
+
+    /**
+     * Record the IME state of an inset dispatch.
+     */
+    public void onInsetsDispatched(boolean imeVisible, int imeHeight) {
+        dispatchedVisible = imeVisible;
+        dispatchedHeight = imeVisible ? imeHeight : 0;
+        if (imeVisible && imeHeight > 0) {
+            cacheHeight(imeHeight);
+        }
+        if (animating) {
+            // The events are sent by the animation callbacks
+            return;
+        }
+        if (!hasVisibility) {
+            hasVisibility = true;
+            visible = imeVisible;
+            return;
+        }
+        if (visible != imeVisible) {
+            visible = imeVisible;
+            notifyWill(0);
+            notifyDid();
+        }
+    }
+
+    /**
+     * Called from onPrepare of an IME animation, before the target insets are dispatched.
+     */
+    public void onAnimationPrepare() {
+        animating = true;
+    }
+
+    /**
+     * Called from onStart of an IME animation, once the target insets are dispatched.
+     */
+    public void onAnimationStart(long durationMs) {
+        if (!animating) {
+            return;
+        }
+        hasVisibility = true;
+        visible = dispatchedVisible;
+        notifyWill(durationMs);
+    }
+
+    /**
+     * Called from onEnd of an IME animation.
+     */
+    public void onAnimationEnd() {
+        if (!animating) {
+            return;
+        }
+        animating = false;
+        hasVisibility = true;
+        visible = dispatchedVisible;
+        notifyDid();
+    }
+
+    /**
+     * The last observed keyboard height in portrait, in physical pixels, or 0 if unknown.
+     */
+    public int getPortraitHeight() {
+        return portraitHeight;
+    }
+
+    /**
+     * The last observed keyboard height in landscape, in physical pixels, or 0 if unknown.
+     */
+    public int getLandscapeHeight() {
+        return landscapeHeight;
+    }
+
+    private void notifyWill(long durationMs) {
+        JSObject result = new JSObject();
+        result.put("height", dispatchedHeight);
+        result.put("durationMs", durationMs);
+        plugin.notifyEvent(visible ? EVENT_KEYBOARD_WILL_SHOW : EVENT_KEYBOARD_WILL_HIDE, result);
+    }
+
+    private void notifyDid() {
+        JSObject result = new JSObject();
+        result.put("height", dispatchedHeight);
+        plugin.notifyEvent(visible ? EVENT_KEYBOARD_DID_SHOW : EVENT_KEYBOARD_DID_HIDE, result);
+    }
+
+    private void cacheHeight(int height) {
+        boolean landscape = plugin.getContext().getResources().getConfiguration().orientation == Configuration.ORIENTATION_LANDSCAPE;
+        if (landscape && landscapeHeight != height) {
+            landscapeHeight = height;
+            preferences.edit().putInt(KEY_LANDSCAPE_HEIGHT, height).apply();
+        } else if (!landscape && portraitHeight != height) {
+            portraitHeight = height;
+            preferences.edit().putInt(KEY_PORTRAIT_HEIGHT, height).apply();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.content.res.Resources;
+import android.os.Build;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Detects whether the device uses gesture navigation and caches the result.
+ * The mode is derived from the tappable element insets, which are empty with gesture navigation,
+ * versus the system gesture insets. The tappable element insets are read ignoring visibility, so button
+ * navigation is detected in landscape and while the system bars are hidden. The system gesture insets
+ * depend on visibility, so while the bars are hidden without a tappable navigation bar the cached mode is kept.
+ * The cache is only refreshed on inset dispatch or invalidated on configuration change.
+ * Must only be used on the UI thread.
+ */
+public class NavigationModeDetector {
+
+    // WindowManagerPolicyConstants.NAV_BAR_MODE_GESTURAL
+    private static final int NAV_BAR_MODE_GESTURAL = 2;
+
+    public interface Listener {
+        void onNavigationModeChanged(boolean isGestureNavigation);
+    }
+
+    @Nullable
+    private final Listener listener;
+
+    private boolean hasValue = false;
+    private boolean valid = false;
+    private boolean gestureNavigation = false;
+
+    public NavigationModeDetector(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Update the cached mode from the given insets and notify the listener if it changed.
+     */
+    public void update(@NonNull InsetsReader insets) {
+        boolean detected = detect(insets);
+        if (hasValue && gestureNavigation && !detected && !insets.isSystemBarsVisible() && !hasTappableNavigationBar(insets)) {
+            // Empty gesture insets of hidden bars do not mean button navigation
+            detected = true;
+        }
+        boolean changed = hasValue && detected != gestureNavigation;
+        gestureNavigation = detected;
+        hasValue = true;
+        valid = true;
+        if (changed && listener != null) {
+            listener.onNavigationModeChanged(detected);
+        }
+    }
+
+    /**
+     * Forget the cached mode, e.g. after a configuration change.
+     * The previous value is still used to decide whether the next detection is a change.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * The cached mode. Only up to date when {@link #isValid()} returns true.
+     */
+    public boolean isGestureNavigation() {
+        return gestureNavigation;
+    }
+
+    /**
+     * Read the navigation mode from the system configuration, for when no insets were dispatched yet,
+     * e.g. while the activity is created and the decor view is not attached
+     */
+    public static boolean readConfiguredMode(@NonNull Resources resources) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return false;
+        }
+        int id = resources.getIdentifier("config_navBarInteractionMode", "integer", "android");
+        if (id == 0) {
+            return false;
+        }
+        try {
+            return resources.getInteger(id) == NAV_BAR_MODE_GESTURAL;
+        } catch (Resources.NotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean detect(InsetsReader insets) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return false;
+        }
+        if (hasTappableNavigationBar(insets)) {
+            // A tappable navigation bar means button navigation
+            return false;
+        }
+        return (
+            insets.get(InsetsReader.SYSTEM_GESTURES, InsetsReader.LEFT) > 0 ||
+            insets.get(InsetsReader.SYSTEM_GESTURES, InsetsReader.RIGHT) > 0 ||
+            insets.get(InsetsReader.SYSTEM_GESTURES, InsetsReader.BOTTOM) > 0
+        );
+    }
+
+    private static boolean hasTappableNavigationBar(InsetsReader insets) {
+        return (
+            insets.get(InsetsReader.TAPPABLE_ELEMENT, InsetsReader.BOTTOM) > 0 ||
+            insets.get(InsetsReader.TAPPABLE_ELEMENT, InsetsReader.LEFT) > 0 ||
+            insets.get(InsetsReader.TAPPABLE_ELEMENT, InsetsReader.RIGHT) > 0
+        );
+    }
+}
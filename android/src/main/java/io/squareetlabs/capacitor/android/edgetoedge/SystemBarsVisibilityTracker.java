@@ -0,0 +1,48 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Tracks whether the system bars are actually on screen, as reported by inset dispatch.
+ * Unlike the requested immersive state this also follows the user swiping the bars back in.
+ * The listener fires on every change after the first value is known.
+ * Must only be used on the UI thread.
+ */
+public class SystemBarsVisibilityTracker {
+
+    public interface Listener {
+        void onSystemBarsVisibilityChanged(boolean visible);
+    }
+
+    @Nullable
+    private final Listener listener;
+
+    private boolean hasValue = false;
+    private boolean visible = true;
+
+    public SystemBarsVisibilityTracker(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Update the visibility from a dispatch and notify the listener if it changed.
+     * @return true if the visibility changed
+     */
+    public boolean update(boolean visible) {
+        boolean changed = hasValue && visible != this.visible;
+        this.visible = visible;
+        hasValue = true;
+        if (changed && listener != null) {
+            listener.onSystemBarsVisibilityChanged(visible);
+        }
+        return changed;
+    }
+
+    public boolean hasValue() {
+        return hasValue;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+}
@@ -0,0 +1,282 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.PluginCall;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Queues UI work from the bridge thread and drains it in a single Choreographer frame callback,
+ * instead of posting one main thread message per plugin call.
+ * Commands scheduled with the same key replace each other within a frame, so only the last write
+ * to a property is applied; the calls of replaced commands resolve together with the one that replaced them.
+ * When scheduled from the main thread, commands run inline after the ones already queued.
+ * No frames are delivered while the display is off or the activity does not render, so a delayed message
+ * flushes the queue if the frame callback did not run within two frame intervals.
+ * Calls made with {@code awaitFrame: true} resolve only once the next frame has been drawn, with the time spent
+ * waiting for the main thread, applying the command and drawing.
+ * Must be created on the main thread.
+ */
+public class UiCommandScheduler implements Choreographer.FrameCallback {
+
+    /**
+     * Delay after which the queue is flushed without a frame, two frame intervals at 60Hz
+     */
+    private static final long FRAME_FALLBACK_DELAY_MS = 33;
+
+    public interface Command {
+        void run();
+    }
+
+    private static class PendingCall {
+
+        @NonNull
+        final PluginCall call;
+
+        final long scheduledAtNanos;
+
+        // false if the command resolves the call itself
+        final boolean resolve;
+
+        // Resolve with the frame timing once the next frame has been drawn
+        final boolean awaitFrame;
+
+        // Links the bridge thread call to its execution on the main thread in traces
+        final int traceCookie;
+
+        long waitNanos;
+
+        long applyNanos;
+
+        long appliedAtNanos;
+
+        PendingCall(@NonNull PluginCall call, boolean resolve, boolean timed) {
+            this.call = call;
+            this.resolve = resolve;
+            this.awaitFrame = resolve && call.getBoolean("awaitFrame", false);
+            // The clock is only read when the timing is recorded or reported
+            this.scheduledAtNanos = timed || awaitFrame ? SystemClock.elapsedRealtimeNanos() : 0;
+            this.traceCookie = EdgeToEdgeTrace.beginAsyncSection(call.getMethodName());
+        }
+    }
+
+    private static class Entry {
+
+        @NonNull
+        final Command command;
+
+        @NonNull
+        final List<PendingCall> calls = new ArrayList<>(1);
+
+        Entry(@NonNull Command command) {
+            this.command = command;
+        }
+    }
+
+    @NonNull
+    private final Choreographer choreographer;
+
+    @NonNull
+    private final EdgeToEdgeMetrics metrics;
+
+    private final Object lock = new Object();
+
+    private final LinkedHashMap<Object, Entry> pending = new LinkedHashMap<>();
+
+    private boolean frameScheduled = false;
+
+    // True while the commands of a frame run, only touched on the main thread
+    private boolean inFrame = false;
+
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Calls waiting for the next frame to be drawn, only touched on the main thread
+     */
+    @NonNull
+    private List<PendingCall> frameCalls = new ArrayList<>();
+
+    private final Runnable frameFallback = this::onFrameFallback;
+
+    private final Choreographer.FrameCallback drawCallback = frameTimeNanos -> {
+        // Messages posted from a frame callback run after the traversal of that frame
+        handler.post(this::resolveFrameCalls);
+    };
+
+    public UiCommandScheduler(@NonNull EdgeToEdgeMetrics metrics) {
+        // Choreographer instances are per thread, so keep the one of the main thread
+        this.choreographer = Choreographer.getInstance();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Schedule a command for the next frame.
+     * @param key identifies the property the command writes, or null if it must not be coalesced
+     * @param call resolved once the command ran, or rejected if it threw
+     */
+    public void schedule(@Nullable String key, @NonNull PluginCall call, @NonNull Command command) {
+        Entry entry = new Entry(command);
+        entry.calls.add(new PendingCall(call, true, metrics.isEnabled()));
+        enqueue(key, entry);
+    }
+
+    /**
+     * Schedule a command that resolves the call itself for the next frame, without coalescing it.
+     * The call is rejected if the command throws.
+     */
+    public void execute(@NonNull PluginCall call, @NonNull Command command) {
+        Entry entry = new Entry(command);
+        entry.calls.add(new PendingCall(call, false, metrics.isEnabled()));
+        enqueue(null, entry);
+    }
+
+    private void enqueue(@Nullable String key, @NonNull Entry entry) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            // Keep the order of the commands queued before this one
+            flush();
+            run(entry);
+            return;
+        }
+
+        synchronized (lock) {
+            Object mapKey = key != null ? key : new Object();
+            Entry previous = pending.remove(mapKey);
+            if (previous != null) {
+                entry.calls.addAll(0, previous.calls);
+            }
+            pending.put(mapKey, entry);
+            if (!frameScheduled) {
+                frameScheduled = true;
+                choreographer.postFrameCallback(this);
+                handler.postDelayed(frameFallback, FRAME_FALLBACK_DELAY_MS);
+            }
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        synchronized (lock) {
+            frameScheduled = false;
+            // Under the lock, a fallback posted by a later enqueue is kept
+            handler.removeCallbacks(frameFallback);
+        }
+        inFrame = true;
+        try {
+            flush();
+        } finally {
+            inFrame = false;
+        }
+    }
+
+    /**
+     * Run the queued commands when no frame arrived, e.g. while the display is off
+     */
+    private void onFrameFallback() {
+        synchronized (lock) {
+            if (!frameScheduled) {
+                return;
+            }
+            frameScheduled = false;
+        }
+        choreographer.removeFrameCallback(this);
+        flush();
+    }
+
+    private void flush() {
+        List<Entry> entries;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            entries = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            run(entries.get(i));
+        }
+    }
+
+    private void run(Entry entry) {
+        boolean timed = metrics.isEnabled();
+        for (int i = 0; i < entry.calls.size() && !timed; i++) {
+            timed = entry.calls.get(i).awaitFrame;
+        }
+        long startNanos = timed ? SystemClock.elapsedRealtimeNanos() : 0;
+        if (metrics.isEnabled()) {
+            for (int i = 0; i < entry.calls.size(); i++) {
+                PendingCall pending = entry.calls.get(i);
+                metrics.recordUiThreadHop(pending.call.getMethodName(), startNanos - pending.scheduledAtNanos);
+            }
+        }
+        PluginCall owner = entry.calls.get(entry.calls.size() - 1).call;
+        if (EdgeToEdgeTrace.isEnabled()) {
+            for (int i = 0; i < entry.calls.size(); i++) {
+                PendingCall pending = entry.calls.get(i);
+                EdgeToEdgeTrace.endAsyncSection(pending.call.getMethodName(), pending.traceCookie);
+            }
+        }
+        EdgeToEdgeTrace.beginSection(owner.getMethodName());
+        try {
+            entry.command.run();
+            long endNanos = timed ? SystemClock.elapsedRealtimeNanos() : 0;
+            for (int i = 0; i < entry.calls.size(); i++) {
+                PendingCall pending = entry.calls.get(i);
+                if (!pending.resolve) {
+                    continue;
+                }
+                if (pending.awaitFrame) {
+                    pending.waitNanos = startNanos - pending.scheduledAtNanos;
+                    pending.applyNanos = endNanos - startNanos;
+                    pending.appliedAtNanos = endNanos;
+                    awaitFrame(pending);
+                } else {
+                    pending.call.resolve();
+                }
+            }
+        } catch (Exception exception) {
+            for (int i = 0; i < entry.calls.size(); i++) {
+                entry.calls.get(i).call.reject(exception.getMessage());
+            }
+        } finally {
+            EdgeToEdgeTrace.endSection();
+        }
+    }
+
+    private void awaitFrame(PendingCall pending) {
+        if (frameCalls.isEmpty()) {
+            if (inFrame) {
+                // The change is drawn by the traversal of the current frame, which runs before this message
+                handler.post(this::resolveFrameCalls);
+            } else {
+                choreographer.postFrameCallback(drawCallback);
+            }
+        }
+        frameCalls.add(pending);
+    }
+
+    private void resolveFrameCalls() {
+        List<PendingCall> calls = frameCalls;
+        frameCalls = new ArrayList<>();
+        long drawnAtNanos = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < calls.size(); i++) {
+            PendingCall pending = calls.get(i);
+            JSObject result = new JSObject();
+            result.put("waitMs", toMillis(pending.waitNanos));
+            result.put("applyMs", toMillis(pending.applyNanos));
+            result.put("drawMs", toMillis(drawnAtNanos - pending.appliedAtNanos));
+            pending.call.resolve(result);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
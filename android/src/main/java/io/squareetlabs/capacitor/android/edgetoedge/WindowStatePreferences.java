@@ -0,0 +1,86 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.annotation.NonNull;
+
+/**
+ * Persists the runtime window state so that warm starts come up already in their final state.
+ * Only used when persistState is enabled in the plugin configuration.
+ */
+public class WindowStatePreferences {
+
+    private static final String PREFERENCES_NAME = "io.squareetlabs.capacitor.android.edgetoedge";
+
+    private static final String KEY_STATUS_BAR_COLOR = "statusBarColor";
+    private static final String KEY_NAVIGATION_BAR_COLOR = "navigationBarColor";
+    private static final String KEY_LIGHT_STATUS_BAR = "lightStatusBar";
+    private static final String KEY_LIGHT_NAVIGATION_BAR = "lightNavigationBar";
+    private static final String KEY_ENFORCE_CONTRAST = "enforceContrast";
+    private static final String KEY_SYSTEM_BARS_BEHAVIOR = "systemBarsBehavior";
+    private static final String KEY_IMMERSIVE = "immersive";
+
+    /**
+     * Save the window state last applied by the plugin. The write happens asynchronously.
+     */
+    public static void save(@NonNull Context context, @NonNull WindowStateStore windowState) {
+        SharedPreferences.Editor editor = getPreferences(context).edit().clear();
+        if (windowState.getStatusBarColor() != null) {
+            editor.putInt(KEY_STATUS_BAR_COLOR, windowState.getStatusBarColor());
+        }
+        if (windowState.getNavigationBarColor() != null) {
+            editor.putInt(KEY_NAVIGATION_BAR_COLOR, windowState.getNavigationBarColor());
+        }
+        if (windowState.getLightStatusBar() != null) {
+            editor.putBoolean(KEY_LIGHT_STATUS_BAR, windowState.getLightStatusBar());
+        }
+        if (windowState.getLightNavigationBar() != null) {
+            editor.putBoolean(KEY_LIGHT_NAVIGATION_BAR, windowState.getLightNavigationBar());
+        }
+        if (windowState.getNavigationBarContrastEnforced() != null) {
+            editor.putBoolean(KEY_ENFORCE_CONTRAST, windowState.getNavigationBarContrastEnforced());
+        }
+        if (windowState.getSystemBarsBehavior() != null) {
+            editor.putInt(KEY_SYSTEM_BARS_BEHAVIOR, windowState.getSystemBarsBehavior());
+        }
+        if (windowState.getSystemBarsHidden() != null) {
+            editor.putBoolean(KEY_IMMERSIVE, windowState.getSystemBarsHidden());
+        }
+        editor.apply();
+    }
+
+    /**
+     * Return the configuration with the persisted values applied on top of it.
+     */
+    @NonNull
+    public static EdgeToEdgeConfig restore(@NonNull Context context, @NonNull EdgeToEdgeConfig config) {
+        SharedPreferences preferences = getPreferences(context);
+        EdgeToEdgeConfig.Builder builder = config.toBuilder();
+        if (preferences.contains(KEY_STATUS_BAR_COLOR)) {
+            builder.setStatusBarColor(preferences.getInt(KEY_STATUS_BAR_COLOR, 0));
+        }
+        if (preferences.contains(KEY_NAVIGATION_BAR_COLOR)) {
+            builder.setNavigationBarColor(preferences.getInt(KEY_NAVIGATION_BAR_COLOR, 0));
+        }
+        if (preferences.contains(KEY_LIGHT_STATUS_BAR)) {
+            builder.setLightStatusBar(preferences.getBoolean(KEY_LIGHT_STATUS_BAR, false));
+        }
+        if (preferences.contains(KEY_LIGHT_NAVIGATION_BAR)) {
+            builder.setLightNavigationBar(preferences.getBoolean(KEY_LIGHT_NAVIGATION_BAR, false));
+        }
+        if (preferences.contains(KEY_ENFORCE_CONTRAST)) {
+            builder.setEnforceContrast(preferences.getBoolean(KEY_ENFORCE_CONTRAST, true));
+        }
+        if (preferences.contains(KEY_SYSTEM_BARS_BEHAVIOR)) {
+            builder.setSystemBarsBehavior(preferences.getInt(KEY_SYSTEM_BARS_BEHAVIOR, 0));
+        }
+        if (preferences.contains(KEY_IMMERSIVE)) {
+            builder.setImmersive(preferences.getBoolean(KEY_IMMERSIVE, false));
+        }
+        return builder.build();
+    }
+
+    private static SharedPreferences getPreferences(Context context) {
+        return context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,171 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import androidx.annotation.Nullable;
+
+/**
+ * In-memory record of the window state last applied by the plugin.
+ * Every mutation of the window goes through one of the update methods, which return false
+ * when the value is already applied so the Window or WindowInsetsControllerCompat call
+ * (and the system UI transaction behind it) can be skipped.
+ * Must only be used on the UI thread.
+ */
+public class WindowStateStore {
+
+    /**
+     * Notified on the UI thread after a value was recorded
+     */
+    public interface Listener {
+        void onWindowStateChanged();
+    }
+
+    @Nullable
+    private final Listener listener;
+
+    private Integer statusBarColor;
+    private Integer navigationBarColor;
+    private Boolean lightStatusBar;
+    private Boolean lightNavigationBar;
+    private Boolean navigationBarContrastEnforced;
+    private Integer systemBarsBehavior;
+    private Boolean systemBarsHidden;
+    private Integer systemUiVisibility;
+
+    public WindowStateStore(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    public boolean updateStatusBarColor(int color) {
+        if (statusBarColor != null && statusBarColor == color) {
+            return false;
+        }
+        statusBarColor = color;
+        notifyChanged();
+        return true;
+    }
+
+    public boolean updateNavigationBarColor(int color) {
+        if (navigationBarColor != null && navigationBarColor == color) {
+            return false;
+        }
+        navigationBarColor = color;
+        notifyChanged();
+        return true;
+    }
+
+    /**
+     * @param isLight true for light icons (dark background), false for dark icons (light background)
+     */
+    public boolean updateLightStatusBar(boolean isLight) {
+        if (lightStatusBar != null && lightStatusBar == isLight) {
+            return false;
+        }
+        lightStatusBar = isLight;
+        notifyChanged();
+        return true;
+    }
+
+    /**
+     * @param isLight true for light icons (dark background), false for dark icons (light background)
+     */
+    public boolean updateLightNavigationBar(boolean isLight) {
+        if (lightNavigationBar != null && lightNavigationBar == isLight) {
+            return false;
+        }
+        lightNavigationBar = isLight;
+        notifyChanged();
+        return true;
+    }
+
+    public boolean updateNavigationBarContrastEnforced(boolean enforce) {
+        if (navigationBarContrastEnforced != null && navigationBarContrastEnforced == enforce) {
+            return false;
+        }
+        navigationBarContrastEnforced = enforce;
+        notifyChanged();
+        return true;
+    }
+
+    public boolean updateSystemBarsBehavior(int behavior) {
+        if (systemBarsBehavior != null && systemBarsBehavior == behavior) {
+            return false;
+        }
+        systemBarsBehavior = behavior;
+        notifyChanged();
+        return true;
+    }
+
+    public boolean updateSystemBarsHidden(boolean hidden) {
+        if (systemBarsHidden != null && systemBarsHidden == hidden) {
+            return false;
+        }
+        systemBarsHidden = hidden;
+        notifyChanged();
+        return true;
+    }
+
+    public boolean updateSystemUiVisibility(int flags) {
+        if (systemUiVisibility != null && systemUiVisibility == flags) {
+            return false;
+        }
+        systemUiVisibility = flags;
+        notifyChanged();
+        return true;
+    }
+
+    /**
+     * Forget everything so the next update of each value is always applied.
+     * Must be called whenever the window is changed without going through the update methods,
+     * e.g. by WindowCompat.enableEdgeToEdge, which resets the bar colors and contrast enforcement.
+     */
+    public void invalidate() {
+        statusBarColor = null;
+        navigationBarColor = null;
+        lightStatusBar = null;
+        lightNavigationBar = null;
+        navigationBarContrastEnforced = null;
+        systemBarsBehavior = null;
+        systemBarsHidden = null;
+        systemUiVisibility = null;
+        notifyChanged();
+    }
+
+    private void notifyChanged() {
+        if (listener != null) {
+            listener.onWindowStateChanged();
+        }
+    }
+
+    // Getters return null for values the plugin has not applied yet
+
+    public Integer getStatusBarColor() {
+        return statusBarColor;
+    }
+
+    public Integer getNavigationBarColor() {
+        return navigationBarColor;
+    }
+
+    public Boolean getLightStatusBar() {
+        return lightStatusBar;
+    }
+
+    public Boolean getLightNavigationBar() {
+        return lightNavigationBar;
+    }
+
+    public Boolean getNavigationBarContrastEnforced() {
+        return navigationBarContrastEnforced;
+    }
+
+    public Integer getSystemBarsBehavior() {
+        return systemBarsBehavior;
+    }
+
+    public Boolean getSystemBarsHidden() {
+        return systemBarsHidden;
+    }
+
+    public Integer getSystemUiVisibility() {
+        return systemUiVisibility;
+    }
+}
@@ -0,0 +1,131 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Looper;
+import android.view.View;
+import androidx.annotation.NonNull;
+import java.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * The bar regions are only sampled after the window drew, at most once per interval.
+ * The view is not attached, so the regions are drawn in software and every sample is counted.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class BarAppearanceSamplerTest {
+
+    private CountingView view;
+
+    private BarAppearanceSampler sampler;
+
+    private Boolean statusBarLightIcons;
+
+    @Before
+    public void setUp() {
+        TestActivity activity = Robolectric.buildActivity(TestActivity.class).setup().get();
+        view = new CountingView(activity);
+        view.setBackgroundColor(Color.BLACK);
+        view.layout(0, 0, 1080, 2400);
+        sampler = new BarAppearanceSampler(
+            activity.getWindow(),
+            view,
+            new BarAppearanceSampler.Listener() {
+                @Override
+                public void onStatusBarAppearanceSampled(boolean lightIcons) {
+                    statusBarLightIcons = lightIcons;
+                }
+
+                @Override
+                public void onNavigationBarAppearanceSampled(boolean lightIcons) {}
+            }
+        );
+        sampler.setRegions(100, 100);
+    }
+
+    private void idle(long millis) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis));
+    }
+
+    private void drawFrame() {
+        view.getViewTreeObserver().dispatchOnDraw();
+    }
+
+    @Test
+    public void samplesOnlyAfterDraw() {
+        sampler.setEnabled(true, BarAppearanceSampler.DEFAULT_INTERVAL_MS);
+        idle(1000);
+        // Status bar and navigation bar region
+        assertEquals(2, view.draws);
+        assertEquals(Boolean.TRUE, statusBarLightIcons);
+
+        view.setBackgroundColor(Color.WHITE);
+        idle(1000);
+        assertEquals(2, view.draws);
+
+        drawFrame();
+        idle(1000);
+        assertEquals(4, view.draws);
+        assertEquals(Boolean.FALSE, statusBarLightIcons);
+    }
+
+    @Test
+    public void samplesAtMostOncePerInterval() {
+        sampler.setEnabled(true, 250);
+        idle(1000);
+        view.draws = 0;
+
+        // A frame every 50 ms for 500 ms is sampled right away, after 250 ms and after 500 ms
+        for (int i = 0; i < 10; i++) {
+            drawFrame();
+            idle(50);
+        }
+        idle(1000);
+        assertEquals(6, view.draws);
+    }
+
+    @Test
+    public void stopsWhenDisabledOrPaused() {
+        sampler.setPaused(true);
+        sampler.setEnabled(true, 250);
+        drawFrame();
+        idle(1000);
+        assertEquals(0, view.draws);
+        assertNull(statusBarLightIcons);
+
+        sampler.setPaused(false);
+        idle(1000);
+        assertEquals(2, view.draws);
+
+        sampler.setEnabled(false, 250);
+        drawFrame();
+        idle(1000);
+        assertEquals(2, view.draws);
+    }
+
+    static class CountingView extends View {
+
+        int draws;
+
+        CountingView(@NonNull Context context) {
+            super(context);
+        }
+
+        @Override
+        public void draw(@NonNull Canvas canvas) {
+            draws++;
+            super.draw(canvas);
+        }
+    }
+}
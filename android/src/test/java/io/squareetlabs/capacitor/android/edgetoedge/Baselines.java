@@ -0,0 +1,48 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Recorded baselines of the regression tests, loaded from the test resources.
+ * A measurement above its baseline fails the test. When a change is meant to lower a value,
+ * lower the baseline in the same commit so the improvement is kept.
+ */
+final class Baselines {
+
+    private final String resource;
+
+    private final Properties values = new Properties();
+
+    Baselines(@NonNull String resource) {
+        this.resource = resource;
+        try (InputStream in = Baselines.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing baseline resource " + resource);
+            }
+            values.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read baseline resource " + resource, e);
+        }
+    }
+
+    double get(@NonNull String key) {
+        String value = values.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("No baseline " + key + " in " + resource);
+        }
+        return Double.parseDouble(value);
+    }
+
+    /**
+     * Fail if the measured value is above its baseline
+     */
+    void assertWithin(@NonNull String key, double actual) {
+        double baseline = get(key);
+        assertTrue(key + " regressed: " + actual + " > baseline " + baseline + " (" + resource + ")", actual <= baseline);
+    }
+}
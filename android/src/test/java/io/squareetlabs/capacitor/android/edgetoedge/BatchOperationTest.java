@@ -0,0 +1,82 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.core.view.WindowInsetsControllerCompat;
+import com.getcapacitor.JSObject;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * A batch operation must behave like the same call made on its own
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class BatchOperationTest {
+
+    private EdgeToEdge edgeToEdge;
+
+    @Before
+    public void setUp() {
+        edgeToEdge = new EdgeToEdgeFixture().start(EdgeToEdgeFixture.config().build());
+    }
+
+    private JSObject execute(String json) throws JSONException {
+        return BatchOperation.parse(new JSONObject(json)).execute(edgeToEdge);
+    }
+
+    @Test
+    public void setKeyboardAnimationKeepsProgressEventsWithoutEmitProgress() throws JSONException {
+        edgeToEdge.setKeyboardAnimation(true, true);
+
+        assertTrue(execute("{\"op\":\"setKeyboardAnimation\",\"enabled\":true}").getBoolean("success"));
+        assertTrue(edgeToEdge.isKeyboardAnimationProgressEvents());
+    }
+
+    @Test
+    public void setKeyboardAnimationAppliesEmitProgress() throws JSONException {
+        execute("{\"op\":\"setKeyboardAnimation\",\"enabled\":true,\"emitProgress\":true}");
+        assertTrue(edgeToEdge.isKeyboardAnimationProgressEvents());
+
+        execute("{\"op\":\"setKeyboardAnimation\",\"enabled\":true,\"emitProgress\":false}");
+        assertFalse(edgeToEdge.isKeyboardAnimationProgressEvents());
+    }
+
+    @Test
+    public void enterImmersiveModeAppliesTheBehavior() throws JSONException {
+        assertTrue(execute("{\"op\":\"enterImmersiveMode\",\"behavior\":\"default\"}").getBoolean("success"));
+
+        assertEquals(Integer.valueOf(WindowInsetsControllerCompat.BEHAVIOR_DEFAULT), edgeToEdge.getWindowState().getSystemBarsBehavior());
+        assertTrue(edgeToEdge.getWindowState().getSystemBarsHidden());
+    }
+
+    @Test
+    public void setImmersiveModeAppliesTheBehavior() throws JSONException {
+        execute("{\"op\":\"setImmersiveMode\",\"enter\":true,\"behavior\":\"showTransientBarsBySwipe\",\"autoHideDelayMs\":3000}");
+
+        assertEquals(
+            Integer.valueOf(WindowInsetsControllerCompat.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE),
+            edgeToEdge.getWindowState().getSystemBarsBehavior()
+        );
+        assertTrue(edgeToEdge.getWindowState().getSystemBarsHidden());
+    }
+
+    @Test
+    public void invalidImmersiveOptionsAreReported() throws JSONException {
+        JSObject invalidBehavior = execute("{\"op\":\"enterImmersiveMode\",\"behavior\":\"sticky\"}");
+        assertFalse(invalidBehavior.getBoolean("success"));
+        assertEquals("Invalid behavior: sticky", invalidBehavior.getString("error"));
+
+        JSObject negativeDelay = execute("{\"op\":\"setImmersiveMode\",\"enter\":true,\"autoHideDelayMs\":-1}");
+        assertFalse(negativeDelay.getBoolean("success"));
+        assertEquals("autoHideDelayMs must not be negative", negativeDelay.getString("error"));
+        assertFalse(Boolean.TRUE.equals(edgeToEdge.getWindowState().getSystemBarsHidden()));
+    }
+}
@@ -0,0 +1,27 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.content.Context;
+import android.view.ViewGroup;
+import android.webkit.WebView;
+
+/**
+ * Web view counting the layout params updates, each one forces a layout pass and a viewport resize in Chromium
+ */
+class CountingWebView extends WebView {
+
+    int layoutParamsUpdates;
+
+    CountingWebView(Context context) {
+        super(context);
+    }
+
+    @Override
+    public void setLayoutParams(ViewGroup.LayoutParams params) {
+        layoutParamsUpdates++;
+        super.setLayoutParams(params);
+    }
+
+    void resetCounts() {
+        layoutParamsUpdates = 0;
+    }
+}
@@ -0,0 +1,78 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.graphics.Color;
+import androidx.core.view.WindowInsetsCompat;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Micro benchmarks of the hot paths, compared with the thresholds recorded in benchmark-baselines.properties.
+ * The time thresholds leave room for slow CI machines and only catch order of magnitude regressions,
+ * the allocation thresholds are tighter as they do not depend on the machine.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class EdgeToEdgeBenchmarkTest {
+
+    private final Baselines baselines = new Baselines("benchmark-baselines.properties");
+
+    private final MicroBenchmark benchmark = new MicroBenchmark(5, 10, 1_000);
+
+    private EdgeToEdgeFixture fixture;
+
+    @Before
+    public void setUp() {
+        fixture = new EdgeToEdgeFixture();
+        fixture.start(EdgeToEdgeFixture.config().build());
+    }
+
+    private void assertWithinBaselines(MicroBenchmark.Result result) {
+        baselines.assertWithin(result.name + ".maxNanosPerOp", result.nanosPerOp);
+        baselines.assertWithin(result.name + ".maxBytesPerOp", result.bytesPerOp);
+    }
+
+    @Test
+    public void steadyStateInsetsDispatch() {
+        WindowInsetsCompat insets = TestInsets.buttonNavigation();
+        fixture.dispatch(insets);
+        fixture.runFrames();
+
+        assertWithinBaselines(benchmark.run("steadyStateInsetsDispatch", () -> fixture.dispatch(insets)));
+    }
+
+    @Test
+    public void keyboardInsetsDispatch() {
+        WindowInsetsCompat[] insets = { TestInsets.buttonNavigation(), TestInsets.buttonNavigationWithKeyboard() };
+        int[] next = { 0 };
+
+        assertWithinBaselines(
+            benchmark.run("keyboardInsetsDispatch", () -> {
+                fixture.dispatch(insets[next[0]]);
+                next[0] ^= 1;
+            })
+        );
+    }
+
+    @Test
+    public void redundantConfigure() {
+        fixture.dispatch(TestInsets.gestureNavigation());
+        fixture.edgeToEdge.configure(true, true, Color.WHITE, Color.BLACK, true, false);
+        fixture.runFrames();
+
+        assertWithinBaselines(
+            benchmark.run("redundantConfigure", () -> fixture.edgeToEdge.configure(true, true, Color.WHITE, Color.BLACK, true, false))
+        );
+    }
+
+    @Test
+    public void redundantEnterImmersiveMode() {
+        fixture.edgeToEdge.enterImmersiveMode();
+        fixture.dispatch(TestInsets.buttonNavigationBarsHidden());
+        fixture.runFrames();
+
+        assertWithinBaselines(benchmark.run("redundantEnterImmersiveMode", fixture.edgeToEdge::enterImmersiveMode));
+    }
+}
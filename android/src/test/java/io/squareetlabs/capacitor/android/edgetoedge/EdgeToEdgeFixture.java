@@ -0,0 +1,98 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.WindowInsetsCompat;
+import com.getcapacitor.Bridge;
+import java.time.Duration;
+import org.robolectric.Robolectric;
+
+/**
+ * A started activity hosting a counting web view, with a test plugin and a stubbed bridge around it
+ */
+final class EdgeToEdgeFixture {
+
+    final TestActivity activity;
+
+    final CountingWebView webView;
+
+    final TestEdgeToEdgePlugin plugin;
+
+    EdgeToEdge edgeToEdge;
+
+    EdgeToEdgeFixture() {
+        activity = Robolectric.buildActivity(TestActivity.class).setup().get();
+        webView = new CountingWebView(activity);
+        // The insets are applied as margins, so the web view needs margin layout params
+        activity.setContentView(
+            webView,
+            new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT)
+        );
+
+        // Stub only, the bridge is called on the hot paths and must not record the invocations
+        Bridge bridge = mock(Bridge.class, withSettings().stubOnly());
+        when(bridge.getWebView()).thenReturn(webView);
+        plugin = new TestEdgeToEdgePlugin(bridge, activity);
+        runFrames();
+    }
+
+    /**
+     * The default configuration with metrics enabled
+     */
+    @NonNull
+    static EdgeToEdgeConfig.Builder config() {
+        return new EdgeToEdgeConfig.Builder().setMetrics(true);
+    }
+
+    /**
+     * Create the plugin implementation, the web view counters only cover what happens from here
+     */
+    @NonNull
+    EdgeToEdge start(@NonNull EdgeToEdgeConfig config) {
+        webView.resetCounts();
+        edgeToEdge = new EdgeToEdge(plugin, config);
+        return edgeToEdge;
+    }
+
+    /**
+     * Dispatch insets to the web view like the view hierarchy does
+     */
+    void dispatch(@NonNull WindowInsetsCompat insets) {
+        ViewCompat.dispatchApplyWindowInsets(webView, insets);
+    }
+
+    /**
+     * Run the pending frames and posted messages
+     */
+    void runFrames() {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(100));
+    }
+
+    void resetCounters() {
+        edgeToEdge.resetMetrics();
+        webView.resetCounts();
+        plugin.resetEventCounts();
+    }
+
+    /**
+     * Read one counter of the metrics result
+     */
+    long metric(@NonNull String name) {
+        return edgeToEdge.getMetricsResult().optLong(name);
+    }
+
+    /**
+     * Count the events sent to JavaScript with the given name
+     */
+    int events(@NonNull String eventName) {
+        return plugin.getEventCount(eventName);
+    }
+}
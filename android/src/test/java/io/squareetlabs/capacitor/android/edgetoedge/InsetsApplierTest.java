@@ -0,0 +1,86 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.view.ViewGroup;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * Redundant dispatches must be counted as skipped without touching the layout params
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class InsetsApplierTest {
+
+    private CountingWebView view;
+
+    private final InsetsApplier applier = new InsetsApplier();
+
+    @Before
+    public void setUp() {
+        view = new CountingWebView(RuntimeEnvironment.getApplication());
+        view.setLayoutParams(new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        view.resetCounts();
+    }
+
+    @Test
+    public void identicalInsetsAreSkipped() {
+        assertTrue(applier.apply(view, 72, 0, 0, 126));
+        assertFalse(applier.apply(view, 72, 0, 0, 126));
+        assertFalse(applier.apply(view, 72, 0, 0, 126));
+
+        assertEquals(1, view.layoutParamsUpdates);
+        assertEquals(1, applier.getAppliedCount());
+        assertEquals(2, applier.getSkippedCount());
+    }
+
+    @Test
+    public void changedInsetsAreApplied() {
+        applier.apply(view, 72, 0, 0, 126);
+        assertTrue(applier.apply(view, 72, 0, 126, 0));
+
+        ViewGroup.MarginLayoutParams params = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+        assertEquals(72, params.topMargin);
+        assertEquals(126, params.rightMargin);
+        assertEquals(0, params.bottomMargin);
+        assertEquals(2, view.layoutParamsUpdates);
+        assertEquals(2, applier.getAppliedCount());
+        assertEquals(0, applier.getSkippedCount());
+    }
+
+    @Test
+    public void invalidateAppliesTheNextInsets() {
+        applier.apply(view, 72, 0, 0, 126);
+        applier.invalidate();
+
+        assertTrue(applier.apply(view, 72, 0, 0, 126));
+        assertEquals(2, view.layoutParamsUpdates);
+    }
+
+    @Test
+    public void marginsChangedOutsideAreRestored() {
+        applier.apply(view, 72, 0, 0, 126);
+        ((ViewGroup.MarginLayoutParams) view.getLayoutParams()).bottomMargin = 0;
+
+        assertTrue(applier.apply(view, 72, 0, 0, 126));
+        assertEquals(126, ((ViewGroup.MarginLayoutParams) view.getLayoutParams()).bottomMargin);
+        assertEquals(2, view.layoutParamsUpdates);
+    }
+
+    @Test
+    public void resetCountersKeepsTheAppliedMargins() {
+        applier.apply(view, 72, 0, 0, 126);
+        applier.resetCounters();
+
+        assertFalse(applier.apply(view, 72, 0, 0, 126));
+        assertEquals(0, applier.getAppliedCount());
+        assertEquals(1, applier.getSkippedCount());
+    }
+}
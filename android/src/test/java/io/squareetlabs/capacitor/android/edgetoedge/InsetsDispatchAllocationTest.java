@@ -0,0 +1,73 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.view.View;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.WindowInsetsCompat;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Steady state insets dispatches through the real listener must not allocate in the plugin.
+ * ViewCompat wraps every dispatch in a new WindowInsetsCompat, which is outside of the plugin's control,
+ * so the same dispatch to a view with an empty listener is the bound.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class InsetsDispatchAllocationTest {
+
+    private static final int DISPATCHES = 10_000;
+
+    private EdgeToEdgeFixture fixture;
+
+    private View referenceView;
+
+    @Before
+    public void setUp() {
+        fixture = new EdgeToEdgeFixture();
+        fixture.start(EdgeToEdgeFixture.config().build());
+        referenceView = new View(fixture.activity);
+        ViewCompat.setOnApplyWindowInsetsListener(referenceView, (view, insets) -> WindowInsetsCompat.CONSUMED);
+    }
+
+    /**
+     * Bytes allocated per dispatch of the given insets, after a warm up so the measured dispatches run compiled code
+     */
+    private long allocatedPerDispatch(View view, WindowInsetsCompat insets) {
+        for (int i = 0; i < DISPATCHES; i++) {
+            ViewCompat.dispatchApplyWindowInsets(view, insets);
+        }
+        long before = MicroBenchmark.allocatedBytes();
+        for (int i = 0; i < DISPATCHES; i++) {
+            ViewCompat.dispatchApplyWindowInsets(view, insets);
+        }
+        return (MicroBenchmark.allocatedBytes() - before) / DISPATCHES;
+    }
+
+    @Test
+    public void steadyStateDispatchDoesNotAllocate() {
+        // The first dispatch applies the margins and sends the event
+        WindowInsetsCompat insets = TestInsets.buttonNavigation();
+        fixture.dispatch(insets);
+        fixture.runFrames();
+        EdgeToEdgeState applied = fixture.edgeToEdge.getState();
+        fixture.resetCounters();
+
+        long reference = allocatedPerDispatch(referenceView, insets);
+        long allocated = allocatedPerDispatch(fixture.webView, insets);
+        System.out.println("Steady state dispatch: " + allocated + " B, empty listener: " + reference + " B");
+
+        assertTrue("Steady state dispatches allocated " + allocated + " bytes, an empty listener " + reference, allocated <= reference);
+        fixture.runFrames();
+        assertSame(applied, fixture.edgeToEdge.getState());
+        assertEquals(0, fixture.webView.layoutParamsUpdates);
+        assertEquals(0, fixture.events(InsetsEventEmitter.EVENT_INSETS_CHANGED));
+        assertEquals(2 * DISPATCHES, fixture.metric("insetsDispatches"));
+    }
+}
@@ -0,0 +1,102 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import android.view.View;
+import androidx.core.view.WindowInsetsCompat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * Only dispatches that resize the window in quick succession are held in settle mode
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class InsetsDispatchDebouncerTest {
+
+    private final List<WindowInsetsCompat> applied = new ArrayList<>();
+
+    private InsetsDispatchDebouncer debouncer;
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        debouncer = new InsetsDispatchDebouncer(EdgeToEdgeConfig.ResizeStormMode.SETTLE, (view, insets) -> applied.add(insets));
+        view = new View(RuntimeEnvironment.getApplication());
+        resize(1080, 2400);
+    }
+
+    private void resize(int width, int height) {
+        view.layout(0, 0, width, height);
+    }
+
+    private void advance(long millis) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis));
+    }
+
+    @Test
+    public void keyboardTransitionsAreAppliedRightAway() {
+        WindowInsetsCompat keyboard = TestInsets.buttonNavigationWithKeyboard();
+        WindowInsetsCompat noKeyboard = TestInsets.buttonNavigation();
+
+        debouncer.onDispatch(view, noKeyboard);
+        advance(10);
+        debouncer.onDispatch(view, keyboard);
+        advance(10);
+        debouncer.onDispatch(view, noKeyboard);
+
+        assertEquals(3, applied.size());
+        assertSame(noKeyboard, applied.get(2));
+    }
+
+    @Test
+    public void rotationIsAppliedRightAway() {
+        debouncer.onDispatch(view, TestInsets.buttonNavigation());
+        advance(500);
+        resize(2400, 1080);
+        WindowInsetsCompat landscape = TestInsets.buttonNavigationLandscape();
+        debouncer.onDispatch(view, landscape);
+
+        assertEquals(2, applied.size());
+        assertSame(landscape, applied.get(1));
+    }
+
+    @Test
+    public void resizeStormIsSettled() {
+        WindowInsetsCompat barsVisible = TestInsets.buttonNavigation();
+        WindowInsetsCompat barsHidden = TestInsets.buttonNavigationBarsHidden();
+
+        debouncer.onDispatch(view, barsVisible);
+        advance(10);
+        resize(1080, 2000);
+        debouncer.onDispatch(view, barsHidden);
+        advance(10);
+        resize(1080, 1600);
+        debouncer.onDispatch(view, barsVisible);
+        advance(10);
+        resize(1080, 1200);
+        debouncer.onDispatch(view, barsVisible);
+
+        assertEquals(1, applied.size());
+        // Only the held dispatch replaced by different insets counts as dropped
+        assertEquals(1, debouncer.getDroppedCount());
+
+        advance(InsetsDispatchDebouncer.SETTLE_DELAY_MS);
+        assertEquals(2, applied.size());
+        assertSame(barsVisible, applied.get(1));
+
+        advance(1000);
+        assertEquals(2, applied.size());
+    }
+}
@@ -0,0 +1,83 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import androidx.annotation.NonNull;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Minimal JMH-style harness: warm-up iterations, then measured iterations of a fixed number of
+ * operations. The time per operation is the median of the iterations, the allocated bytes per
+ * operation the minimum, so a garbage collection or a JIT pause in one iteration does not count.
+ */
+final class MicroBenchmark {
+
+    static final class Result {
+
+        final String name;
+
+        final double nanosPerOp;
+
+        final double bytesPerOp;
+
+        Result(String name, double nanosPerOp, double bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f ns/op, %.2f B/op", name, nanosPerOp, bytesPerOp);
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmupIterations;
+
+    private final int measurementIterations;
+
+    private final int opsPerIteration;
+
+    MicroBenchmark(int warmupIterations, int measurementIterations, int opsPerIteration) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.opsPerIteration = opsPerIteration;
+    }
+
+    @NonNull
+    Result run(@NonNull String name, @NonNull Runnable op) {
+        for (int i = 0; i < warmupIterations; i++) {
+            for (int j = 0; j < opsPerIteration; j++) {
+                op.run();
+            }
+        }
+
+        long threadId = Thread.currentThread().getId();
+        double[] nanos = new double[measurementIterations];
+        double minBytes = Double.MAX_VALUE;
+        for (int i = 0; i < measurementIterations; i++) {
+            long startBytes = THREADS.getThreadAllocatedBytes(threadId);
+            long startNanos = System.nanoTime();
+            for (int j = 0; j < opsPerIteration; j++) {
+                op.run();
+            }
+            long endNanos = System.nanoTime();
+            long endBytes = THREADS.getThreadAllocatedBytes(threadId);
+            nanos[i] = (double) (endNanos - startNanos) / opsPerIteration;
+            minBytes = Math.min(minBytes, (double) (endBytes - startBytes) / opsPerIteration);
+        }
+        Arrays.sort(nanos);
+        Result result = new Result(name, nanos[measurementIterations / 2], minBytes);
+        System.out.println("Benchmark " + result);
+        return result;
+    }
+
+    /**
+     * Bytes allocated by the current thread so far
+     */
+    static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,64 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.core.view.WindowInsetsCompat;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * The detected mode must not flip while the system bars are hidden in immersive mode
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class NavigationModeDetectorTest {
+
+    private final InsetsReader insets = new InsetsReader();
+
+    private int changes;
+
+    private final NavigationModeDetector detector = new NavigationModeDetector(isGestureNavigation -> changes++);
+
+    private void update(WindowInsetsCompat windowInsets) {
+        insets.read(windowInsets);
+        detector.update(insets);
+    }
+
+    @Test
+    public void gestureNavigationIsKeptWhileBarsAreHidden() {
+        update(TestInsets.gestureNavigation());
+        assertTrue(detector.isGestureNavigation());
+
+        // Hidden bars report no gesture insets and no tappable element
+        update(new WindowInsetsCompat.Builder().build());
+        assertTrue(detector.isGestureNavigation());
+        assertEquals(0, changes);
+    }
+
+    @Test
+    public void buttonNavigationIsDetectedWhileBarsAreHidden() {
+        update(TestInsets.buttonNavigationBarsHidden());
+        assertFalse(detector.isGestureNavigation());
+
+        update(TestInsets.gestureNavigation());
+        update(TestInsets.buttonNavigationBarsHidden());
+        assertFalse(detector.isGestureNavigation());
+        assertEquals(2, changes);
+    }
+
+    @Test
+    public void visibleBarsWithoutGestureInsetsAreButtonNavigation() {
+        update(TestInsets.gestureNavigation());
+        update(
+            new WindowInsetsCompat.Builder()
+                .setVisible(WindowInsetsCompat.Type.systemBars(), true)
+                .build()
+        );
+        assertFalse(detector.isGestureNavigation());
+        assertEquals(1, changes);
+    }
+}
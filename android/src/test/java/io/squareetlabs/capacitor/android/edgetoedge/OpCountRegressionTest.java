@@ -0,0 +1,159 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Color;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Counts the layout params updates, window setter calls and JavaScript events of the standard scenarios
+ * and compares them with the baselines recorded in op-count-baselines.properties.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class OpCountRegressionTest {
+
+    private final Baselines baselines = new Baselines("op-count-baselines.properties");
+
+    private EdgeToEdgeFixture fixture;
+
+    @Before
+    public void setUp() {
+        fixture = new EdgeToEdgeFixture();
+    }
+
+    private void assertCounts(String scenario) {
+        baselines.assertWithin(scenario + ".layoutParamsUpdates", fixture.webView.layoutParamsUpdates);
+        baselines.assertWithin(scenario + ".windowSetterCalls", fixture.metric("windowSetterCalls"));
+        baselines.assertWithin(scenario + ".insetsEvents", fixture.events(InsetsEventEmitter.EVENT_INSETS_CHANGED));
+    }
+
+    @Test
+    public void coldStart() {
+        fixture.start(
+            EdgeToEdgeFixture.config()
+                .setLightStatusBar(true)
+                .setLightNavigationBar(true)
+                .setStatusBarColor(Color.WHITE)
+                .setNavigationBarColor(Color.WHITE)
+                .setEnforceContrast(false)
+                .build()
+        );
+        fixture.dispatch(TestInsets.buttonNavigation());
+        fixture.dispatch(TestInsets.buttonNavigation());
+        fixture.runFrames();
+
+        assertCounts("coldStart");
+    }
+
+    @Test
+    public void configure() {
+        fixture.start(EdgeToEdgeFixture.config().build());
+        fixture.dispatch(TestInsets.buttonNavigation());
+        fixture.runFrames();
+        fixture.resetCounters();
+
+        fixture.edgeToEdge.configure(true, true, Color.WHITE, Color.BLACK, true, false);
+        fixture.runFrames();
+        assertCounts("configure");
+
+        // Configuring the same values again must not touch the window
+        fixture.resetCounters();
+        fixture.edgeToEdge.configure(true, true, Color.WHITE, Color.BLACK, true, false);
+        fixture.runFrames();
+        assertCounts("configureRepeated");
+    }
+
+    @Test
+    public void rotation() {
+        fixture.start(EdgeToEdgeFixture.config().build());
+        fixture.dispatch(TestInsets.buttonNavigation());
+        fixture.runFrames();
+        fixture.resetCounters();
+
+        // A rotation dispatches the same insets several times, each relayout of the hierarchy sends them again
+        fixture.edgeToEdge.invalidateNavigationMode();
+        for (int i = 0; i < 3; i++) {
+            fixture.dispatch(TestInsets.buttonNavigationLandscape());
+        }
+        fixture.runFrames();
+        fixture.edgeToEdge.invalidateNavigationMode();
+        for (int i = 0; i < 3; i++) {
+            fixture.dispatch(TestInsets.buttonNavigation());
+        }
+        fixture.runFrames();
+
+        assertCounts("rotation");
+    }
+
+    @Test
+    public void keyboardToggle() {
+        fixture.start(EdgeToEdgeFixture.config().build());
+        fixture.dispatch(TestInsets.buttonNavigation());
+        fixture.runFrames();
+        fixture.resetCounters();
+
+        for (int i = 0; i < 2; i++) {
+            fixture.dispatch(TestInsets.buttonNavigationWithKeyboard());
+        }
+        fixture.runFrames();
+        for (int i = 0; i < 2; i++) {
+            fixture.dispatch(TestInsets.buttonNavigation());
+        }
+        fixture.runFrames();
+
+        assertCounts("keyboardToggle");
+    }
+
+    @Test
+    public void immersiveEnterExit() {
+        fixture.start(EdgeToEdgeFixture.config().build());
+        fixture.dispatch(TestInsets.buttonNavigation());
+        fixture.runFrames();
+        fixture.resetCounters();
+
+        fixture.edgeToEdge.enterImmersiveMode();
+        fixture.dispatch(TestInsets.buttonNavigationBarsHidden());
+        fixture.edgeToEdge.enterImmersiveMode();
+        fixture.runFrames();
+        fixture.edgeToEdge.exitImmersiveMode();
+        fixture.dispatch(TestInsets.buttonNavigation());
+        fixture.edgeToEdge.exitImmersiveMode();
+        fixture.runFrames();
+
+        assertCounts("immersiveEnterExit");
+    }
+
+    @Test
+    public void gestureNavigationConfigure() {
+        fixture.start(EdgeToEdgeFixture.config().build());
+        fixture.dispatch(TestInsets.gestureNavigation());
+        fixture.runFrames();
+        fixture.resetCounters();
+
+        assertTrue(fixture.edgeToEdge.checkGestureNavigation());
+        fixture.edgeToEdge.configure(true, true, Color.WHITE, Color.BLACK, true, false);
+        fixture.runFrames();
+
+        assertCounts("gestureNavigationConfigure");
+    }
+
+    @Test
+    public void buttonNavigationConfigure() {
+        fixture.start(EdgeToEdgeFixture.config().build());
+        fixture.dispatch(TestInsets.buttonNavigation());
+        fixture.runFrames();
+        fixture.resetCounters();
+
+        assertFalse(fixture.edgeToEdge.checkGestureNavigation());
+        fixture.edgeToEdge.configure(true, true, Color.WHITE, Color.BLACK, true, false);
+        fixture.runFrames();
+
+        assertCounts("buttonNavigationConfigure");
+    }
+}
@@ -0,0 +1,55 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import com.getcapacitor.Bridge;
+import com.getcapacitor.JSObject;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plugin bound to a test activity, counting the events sent to JavaScript.
+ * A Mockito mock would record every getActivity() call of the hot paths and skew the measurements.
+ */
+class TestEdgeToEdgePlugin extends EdgeToEdgePlugin {
+
+    private final Bridge bridge;
+
+    private final AppCompatActivity activity;
+
+    private final Map<String, Integer> events = new HashMap<>();
+
+    TestEdgeToEdgePlugin(@NonNull Bridge bridge, @NonNull AppCompatActivity activity) {
+        this.bridge = bridge;
+        this.activity = activity;
+    }
+
+    @Override
+    public Bridge getBridge() {
+        return bridge;
+    }
+
+    @Override
+    public AppCompatActivity getActivity() {
+        return activity;
+    }
+
+    @Override
+    public Context getContext() {
+        return activity;
+    }
+
+    @Override
+    void notifyEvent(String eventName, JSObject data) {
+        events.merge(eventName, 1, Integer::sum);
+    }
+
+    int getEventCount(@NonNull String eventName) {
+        return events.getOrDefault(eventName, 0);
+    }
+
+    void resetEventCounts() {
+        events.clear();
+    }
+}
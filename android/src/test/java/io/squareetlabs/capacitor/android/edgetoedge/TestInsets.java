@@ -0,0 +1,81 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import androidx.core.graphics.Insets;
+import androidx.core.view.WindowInsetsCompat;
+
+/**
+ * Window insets of a 1080x2400 phone in the common device configurations
+ */
+final class TestInsets {
+
+    static final int STATUS_BAR = 72;
+
+    static final int GESTURE_HANDLE = 48;
+
+    static final int BUTTON_BAR = 126;
+
+    static final int BACK_GESTURE = 60;
+
+    static final int KEYBOARD = 840;
+
+    private TestInsets() {}
+
+    /**
+     * Portrait with gesture navigation, only the status bar is tappable
+     */
+    static WindowInsetsCompat gestureNavigation() {
+        return new WindowInsetsCompat.Builder()
+            .setInsets(WindowInsetsCompat.Type.statusBars(), Insets.of(0, STATUS_BAR, 0, 0))
+            .setInsets(WindowInsetsCompat.Type.navigationBars(), Insets.of(0, 0, 0, GESTURE_HANDLE))
+            .setInsets(WindowInsetsCompat.Type.systemGestures(), Insets.of(BACK_GESTURE, STATUS_BAR, BACK_GESTURE, GESTURE_HANDLE))
+            .setInsetsIgnoringVisibility(WindowInsetsCompat.Type.tappableElement(), Insets.of(0, STATUS_BAR, 0, 0))
+            .setVisible(WindowInsetsCompat.Type.systemBars(), true)
+            .build();
+    }
+
+    /**
+     * Portrait with 3-button navigation
+     */
+    static WindowInsetsCompat buttonNavigation() {
+        return new WindowInsetsCompat.Builder()
+            .setInsets(WindowInsetsCompat.Type.statusBars(), Insets.of(0, STATUS_BAR, 0, 0))
+            .setInsets(WindowInsetsCompat.Type.navigationBars(), Insets.of(0, 0, 0, BUTTON_BAR))
+            .setInsets(WindowInsetsCompat.Type.systemGestures(), Insets.of(0, STATUS_BAR, 0, BUTTON_BAR))
+            .setInsetsIgnoringVisibility(WindowInsetsCompat.Type.tappableElement(), Insets.of(0, STATUS_BAR, 0, BUTTON_BAR))
+            .setVisible(WindowInsetsCompat.Type.systemBars(), true)
+            .build();
+    }
+
+    /**
+     * Landscape with 3-button navigation, the navigation bar moved to the right edge
+     */
+    static WindowInsetsCompat buttonNavigationLandscape() {
+        return new WindowInsetsCompat.Builder()
+            .setInsets(WindowInsetsCompat.Type.statusBars(), Insets.of(0, STATUS_BAR, 0, 0))
+            .setInsets(WindowInsetsCompat.Type.navigationBars(), Insets.of(0, 0, BUTTON_BAR, 0))
+            .setInsets(WindowInsetsCompat.Type.systemGestures(), Insets.of(0, STATUS_BAR, BUTTON_BAR, 0))
+            .setInsetsIgnoringVisibility(WindowInsetsCompat.Type.tappableElement(), Insets.of(0, STATUS_BAR, BUTTON_BAR, 0))
+            .setVisible(WindowInsetsCompat.Type.systemBars(), true)
+            .build();
+    }
+
+    /**
+     * Portrait with 3-button navigation and the keyboard shown
+     */
+    static WindowInsetsCompat buttonNavigationWithKeyboard() {
+        return new WindowInsetsCompat.Builder(buttonNavigation())
+            .setInsets(WindowInsetsCompat.Type.ime(), Insets.of(0, 0, 0, KEYBOARD))
+            .setVisible(WindowInsetsCompat.Type.ime(), true)
+            .build();
+    }
+
+    /**
+     * Portrait with 3-button navigation in immersive mode, the bars are hidden
+     */
+    static WindowInsetsCompat buttonNavigationBarsHidden() {
+        return new WindowInsetsCompat.Builder(buttonNavigation())
+            .setInsets(WindowInsetsCompat.Type.systemBars(), Insets.NONE)
+            .setVisible(WindowInsetsCompat.Type.systemBars(), false)
+            .build();
+    }
+}
@@ -0,0 +1,68 @@
+package io.squareetlabs.capacitor.android.edgetoedge;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import com.getcapacitor.PluginCall;
+import java.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+
+/**
+ * Calls scheduled from the bridge thread must resolve whether or not frames are delivered
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class UiCommandSchedulerTest {
+
+    private UiCommandScheduler scheduler;
+
+    private PluginCall call;
+
+    private int runs;
+
+    @Before
+    public void setUp() {
+        scheduler = new UiCommandScheduler(new EdgeToEdgeMetrics(false));
+        call = mock(PluginCall.class);
+        when(call.getMethodName()).thenReturn("setStatusBarColor");
+        when(call.getBoolean("awaitFrame", false)).thenReturn(false);
+    }
+
+    private void scheduleFromBridgeThread() throws InterruptedException {
+        Thread bridge = new Thread(() -> scheduler.schedule("statusBarColor", call, () -> runs++));
+        bridge.start();
+        bridge.join();
+    }
+
+    @Test
+    public void callsResolveWithoutFrames() throws InterruptedException {
+        // No frames are delivered while the display is off
+        ShadowChoreographer.setPostFrameCallbackDelay(10_000);
+        scheduleFromBridgeThread();
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(100));
+
+        assertEquals(1, runs);
+        verify(call).resolve();
+    }
+
+    @Test
+    public void callsRunOnceWhenTheFrameArrives() throws InterruptedException {
+        scheduleFromBridgeThread();
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(100));
+
+        assertEquals(1, runs);
+        verify(call, times(1)).resolve();
+    }
+}
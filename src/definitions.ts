@@ -1,9 +1,89 @@
 /// <reference types="@capacitor/cli" />
 
+import type { PluginListenerHandle } from '@capacitor/core';
+
 declare module '@capacitor/cli' {
   export interface PluginsConfig {
     EdgeToEdge?: {
+      /**
+       * Disable edge-to-edge when gesture navigation is enabled
+       */
       disableEdgeToEdgeForGesture?: boolean;
+      /**
+       * Status bar color in ARGB format, applied before the first frame
+       */
+      statusBarColor?: string;
+      /**
+       * Navigation bar color in ARGB format, applied before the first frame
+       */
+      navigationBarColor?: string;
+      /**
+       * true for light status bar icons (dark background), false for dark icons (light background)
+       */
+      lightStatusBar?: boolean;
+      /**
+       * true for light navigation bar icons (dark background), false for dark icons (light background)
+       */
+      lightNavigationBar?: boolean;
+      /**
+       * true to enforce navigation bar contrast (translucent), false for transparent
+       */
+      enforceContrast?: boolean;
+      /**
+       * How the system bars behave when they are hidden
+       */
+      systemBarsBehavior?: 'default' | 'showTransientBarsBySwipe';
+      /**
+       * Start in immersive mode (system bars hidden)
+       * Default: false
+       */
+      immersive?: boolean;
+      /**
+       * Enable keyboard animation on startup
+       * Default: false
+       */
+      keyboardAnimation?: boolean;
+      /**
+       * Persist the window state when the app goes to the background and restore it on the next launch
+       * Default: false
+       */
+      persistState?: boolean;
+      /**
+       * How the insets are applied to the web view
+       * Default: "margins"
+       */
+      insetMode?: InsetMode;
+      /**
+       * How the software keyboard affects the web view
+       * Default: "resize"
+       */
+      imeMode?: ImeMode;
+      /**
+       * How rapid successive inset changes are applied while the window is resized, e.g. while a split-screen divider is dragged.
+       * "frame" applies the latest insets once per frame, "settle" once they stopped changing, "none" applies every change.
+       * The final insets are always applied.
+       * Default: "none"
+       */
+      resizeStormMode?: 'none' | 'frame' | 'settle';
+      /**
+       * Record the runtime metrics returned by getMetrics()
+       * Default: false
+       */
+      metrics?: boolean;
+      /**
+       * Emit named trace sections for Perfetto and systrace around the plugin methods, inset dispatch and keyboard animation
+       * Default: false
+       */
+      trace?: boolean;
+      /**
+       * Pick light or dark bar icons from the web view content drawn beneath the bars, see setAutoBarAppearance()
+       * Default: false
+       */
+      autoBarAppearance?: boolean;
+      /**
+       * Named profiles that can be applied with applyProfile(), parsed once when the plugin loads
+       */
+      profiles?: { [id: string]: Profile };
     };
   }
 }
@@ -11,16 +91,32 @@ declare module '@capacitor/cli' {
 export interface EdgeToEdgePlugin {
   /**
    * Enable the edge-to-edge mode.
+   * @param options Set awaitFrame to resolve only after the next frame has been drawn
    */
-  enable(): Promise<void>;
+  enable(options?: AwaitFrameOptions): Promise<FrameTiming | void>;
   /**
    * Disable the edge-to-edge mode.
+   * @param options Set awaitFrame to resolve only after the next frame has been drawn
    */
-  disable(): Promise<void>;
+  disable(options?: AwaitFrameOptions): Promise<FrameTiming | void>;
   /**
    * Return the insets that are currently applied to the webview.
    */
   getInsets(): Promise<GetInsetsResult>;
+  /**
+   * Choose how the insets are applied to the web view.
+   * In "css" mode the web view stays full-window and the insets are exposed as CSS custom properties
+   * on the document root: --e2e-inset-top, --e2e-inset-left, --e2e-inset-right, --e2e-inset-bottom and --e2e-ime-bottom.
+   * @param options Configuration for the inset mode
+   */
+  setInsetMode(options: SetInsetModeOptions): Promise<void>;
+  /**
+   * Choose how the software keyboard affects the web view, e.g. per screen.
+   * In "overlay" mode the web view is not resized; the keyboard height is reported through the
+   * insetsChanged event and the --e2e-ime-bottom CSS custom property.
+   * @param options Configuration for the IME mode
+   */
+  setImeMode(options: SetImeModeOptions): Promise<void>;
   /**
    * Set the status bar appearance (light or dark icons).
    * @param options Configuration for status bar appearance
@@ -31,6 +127,22 @@ export interface EdgeToEdgePlugin {
    * @param options Configuration for navigation bar appearance
    */
   setNavigationBarAppearance(options: SetNavigationBarAppearanceOptions): Promise<void>;
+  /**
+   * Pick light or dark bar icons from the web view content drawn beneath the bars.
+   * The bar regions are sampled natively after the window drew, at most once per interval, and the appearance only flips once the content
+   * is clearly lighter or darker, without any bridge traffic. While enabled, the sampled appearance overrides
+   * setStatusBarAppearance() and setNavigationBarAppearance().
+   * @param options Enable or disable sampling and set the sampling interval
+   */
+  setAutoBarAppearance(options: SetAutoBarAppearanceOptions): Promise<void>;
+  /**
+   * Exclude regions of the web view from the system back gesture, replacing the previous regions.
+   * Calls within the same frame are coalesced and the platform is only updated when the regions change,
+   * so the rects can be streamed while scrolling. The excluded height along each side edge is limited to 200dp,
+   * earlier rects taking precedence. Only has an effect on Android 10 and newer.
+   * @param options The rects to exclude, in CSS pixels relative to the web view
+   */
+  setGestureExclusionRects(options: SetGestureExclusionRectsOptions): Promise<void>;
   /**
    * Set the status bar color.
    * @param options Configuration for status bar color
@@ -41,6 +153,12 @@ export interface EdgeToEdgePlugin {
    * @param options Configuration for navigation bar color
    */
   setNavigationBarColor(options: SetNavigationBarColorOptions): Promise<void>;
+  /**
+   * Animate the status and navigation bar colors natively.
+   * Starting a new animation cancels the one in flight, as does setting a bar color directly.
+   * @param options Configuration for the animation
+   */
+  animateBarColors(options: AnimateBarColorsOptions): Promise<AnimateBarColorsResult>;
   /**
    * Control whether the navigation bar should have contrast enforced.
    * @param options Configuration for navigation bar contrast
@@ -49,38 +167,51 @@ export interface EdgeToEdgePlugin {
   /**
    * Enter immersive fullscreen mode (hide system bars).
    * Recommended for games, videos, and other immersive experiences.
+   * @param options Set awaitFrame to resolve only after the next frame has been drawn
    */
-  enterImmersiveMode(): Promise<void>;
+  enterImmersiveMode(options?: EnterImmersiveModeOptions): Promise<FrameTiming | void>;
   /**
    * Exit immersive fullscreen mode (show system bars).
+   * @param options Set awaitFrame to resolve only after the next frame has been drawn
    */
-  exitImmersiveMode(): Promise<void>;
+  exitImmersiveMode(options?: AwaitFrameOptions): Promise<FrameTiming | void>;
   /**
    * Enter or exit immersive mode.
    * @param options Configuration for immersive mode
    */
-  setImmersiveMode(options: SetImmersiveModeOptions): Promise<void>;
+  setImmersiveMode(options: SetImmersiveModeOptions): Promise<FrameTiming | void>;
   /**
    * Check if currently in immersive mode.
    */
   isImmersiveMode(): Promise<IsImmersiveModeResult>;
+  /**
+   * Return the window state last applied by the plugin.
+   * Values the plugin has not applied yet are omitted.
+   */
+  getWindowState(): Promise<WindowState>;
   /**
    * Enable or disable keyboard animation.
    * This provides smooth animations when the keyboard appears/disappears.
+   * While the keyboard animates, the web view follows it with a translation and is resized only once, at the end.
    * @param options Configuration for keyboard animation
    */
   setKeyboardAnimation(options: SetKeyboardAnimationOptions): Promise<void>;
+  /**
+   * Return the last observed keyboard height, cached per orientation and persisted across launches.
+   * Lets the page lay out for the keyboard before it is shown.
+   */
+  getKeyboardHeight(): Promise<GetKeyboardHeightResult>;
   /**
    * Apply comprehensive edge-to-edge configuration with all settings.
    * @param options Complete configuration options
    */
-  configure(options: ConfigureOptions): Promise<void>;
+  configure(options: ConfigureOptions): Promise<FrameTiming | void>;
   /**
    * Apply edge-to-edge configuration optimized for gesture navigation.
    * This method automatically handles the navigation bar as transparent.
    * @param options Configuration options for gesture navigation
    */
-  configureForGestureNavigation(options: ConfigureForGestureNavigationOptions): Promise<void>;
+  configureForGestureNavigation(options: ConfigureForGestureNavigationOptions): Promise<FrameTiming | void>;
   /**
    * Force transparent navigation bar for gesture navigation.
    * This method specifically handles cases where Android ignores color settings.
@@ -88,12 +219,104 @@ export interface EdgeToEdgePlugin {
   forceTransparentNavigationBar(): Promise<void>;
   /**
    * Check if the device is using gesture navigation.
+   * The result is cached and refreshed on inset dispatch and configuration changes.
    */
   checkGestureNavigation(): Promise<CheckGestureNavigationResult>;
   /**
    * Set plugin configuration options.
    */
   setConfiguration(options: SetConfigurationOptions): Promise<void>;
+  /**
+   * Apply several operations in a single bridge call.
+   * All operations are validated up front and run together in one UI thread task.
+   * A failing operation is reported in its result and does not abort the rest of the batch.
+   * @param options The operations to apply, in order
+   */
+  applyBatch(options: ApplyBatchOptions): Promise<ApplyBatchResult>;
+  /**
+   * Register a named profile, replacing any profile with the same id.
+   * The profile is parsed and validated once, so applying it later is a single cheap call.
+   * @param options The id and the settings of the profile
+   */
+  registerProfile(options: RegisterProfileOptions): Promise<void>;
+  /**
+   * Apply a profile declared in the plugin configuration or registered with registerProfile().
+   * Only the settings that differ from the current state are applied.
+   * @param options The id of the profile
+   */
+  applyProfile(options: ApplyProfileOptions): Promise<FrameTiming | void>;
+  /**
+   * Return the runtime counters and latency histograms of the plugin.
+   * Nothing is recorded unless the metrics option is enabled in the plugin configuration.
+   */
+  getMetrics(): Promise<Metrics>;
+  /**
+   * Reset the runtime counters and latency histograms.
+   */
+  resetMetrics(): Promise<void>;
+  /**
+   * Listen for inset changes.
+   * Dispatches are coalesced to at most one event per frame and paused while the app is in the background.
+   */
+  addListener(
+    eventName: 'insetsChanged',
+    listenerFunc: (event: InsetsChangedEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Listen for changes between gesture and button navigation.
+   */
+  addListener(
+    eventName: 'navigationModeChanged',
+    listenerFunc: (event: NavigationModeChangedEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Listen for the system bars being shown or hidden, including by the user.
+   */
+  addListener(
+    eventName: 'systemBarsVisibilityChanged',
+    listenerFunc: (event: SystemBarsVisibilityChangedEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Listen for keyboard animation frames.
+   * Only emitted when keyboard animation is enabled with emitProgress.
+   */
+  addListener(
+    eventName: 'keyboardAnimationProgress',
+    listenerFunc: (event: KeyboardAnimationProgressEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Listen for the keyboard starting to show.
+   * Emitted before the first animation frame with the target height and the animation duration.
+   */
+  addListener(
+    eventName: 'keyboardWillShow',
+    listenerFunc: (event: KeyboardWillChangeEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Listen for the keyboard starting to hide.
+   */
+  addListener(
+    eventName: 'keyboardWillHide',
+    listenerFunc: (event: KeyboardWillChangeEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Listen for the keyboard being fully shown.
+   */
+  addListener(
+    eventName: 'keyboardDidShow',
+    listenerFunc: (event: KeyboardDidChangeEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Listen for the keyboard being fully hidden.
+   */
+  addListener(
+    eventName: 'keyboardDidHide',
+    listenerFunc: (event: KeyboardDidChangeEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Remove all listeners for this plugin.
+   */
+  removeAllListeners(): Promise<void>;
 }
 
 /**
@@ -118,6 +341,41 @@ export interface GetInsetsResult {
   top: number;
 }
 
+/**
+ * How the insets are applied to the web view.
+ * - "margins": the web view is shrunk with margins
+ * - "css": the web view stays full-window and the insets are exposed as CSS custom properties
+ */
+export type InsetMode = 'margins' | 'css';
+
+/**
+ * Options for setting the inset mode.
+ */
+export interface SetInsetModeOptions {
+  /**
+   * How the insets are applied to the web view
+   */
+  mode: InsetMode;
+}
+
+/**
+ * How the software keyboard affects the web view.
+ * - "resize": the web view is shrunk above the keyboard
+ * - "overlay": the web view stays above the system bars and the keyboard height is only reported
+ * - "none": the keyboard is ignored
+ */
+export type ImeMode = 'resize' | 'overlay' | 'none';
+
+/**
+ * Options for setting the IME mode.
+ */
+export interface SetImeModeOptions {
+  /**
+   * How the software keyboard affects the web view
+   */
+  mode: ImeMode;
+}
+
 /**
  * Options for setting status bar appearance.
  */
@@ -138,6 +396,41 @@ export interface SetNavigationBarAppearanceOptions {
   light: boolean;
 }
 
+/**
+ * Options for automatic bar appearance.
+ */
+export interface SetAutoBarAppearanceOptions {
+  /**
+   * Sample the web view content beneath the bars
+   */
+  enabled: boolean;
+  /**
+   * Minimum time between two samples in milliseconds, at least 100.
+   * Default: 250
+   */
+  intervalMs?: number;
+}
+
+/**
+ * A rectangle in CSS pixels relative to the web view.
+ */
+export interface ExclusionRect {
+  x: number;
+  y: number;
+  width: number;
+  height: number;
+}
+
+/**
+ * Options for setting the gesture exclusion rects.
+ */
+export interface SetGestureExclusionRectsOptions {
+  /**
+   * Regions to exclude from the back gesture, for example from element.getBoundingClientRect(). An empty array removes all exclusions.
+   */
+  rects: ExclusionRect[];
+}
+
 /**
  * Options for setting status bar color.
  */
@@ -158,6 +451,40 @@ export interface SetNavigationBarColorOptions {
   color: string;
 }
 
+/**
+ * Options for animating the bar colors.
+ */
+export interface AnimateBarColorsOptions {
+  /**
+   * Target status bar color in ARGB format (e.g., "#FF000000" for opaque black)
+   */
+  statusBarColor?: string;
+  /**
+   * Target navigation bar color in ARGB format (e.g., "#FF000000" for opaque black)
+   */
+  navigationBarColor?: string;
+  /**
+   * Duration of the animation in milliseconds
+   * Default: 300
+   */
+  durationMs?: number;
+  /**
+   * Easing of the animation
+   * Default: "accelerateDecelerate"
+   */
+  interpolator?: 'linear' | 'accelerate' | 'decelerate' | 'accelerateDecelerate' | 'fastOutSlowIn';
+}
+
+/**
+ * Result for animating the bar colors.
+ */
+export interface AnimateBarColorsResult {
+  /**
+   * true if the animation ran to the end, false if it was cancelled
+   */
+  finished: boolean;
+}
+
 /**
  * Options for setting navigation bar contrast enforcement.
  */
@@ -171,7 +498,7 @@ export interface SetNavigationBarContrastEnforcedOptions {
 /**
  * Options for setting immersive mode.
  */
-export interface SetImmersiveModeOptions {
+export interface SetImmersiveModeOptions extends EnterImmersiveModeOptions {
   /**
    * true to enter immersive mode, false to exit
    */
@@ -183,9 +510,52 @@ export interface SetImmersiveModeOptions {
  */
 export interface IsImmersiveModeResult {
   /**
-   * Whether the app is currently in immersive mode
+   * Whether immersive mode was requested
    */
   immersive: boolean;
+  /**
+   * Whether the system bars are actually on screen, e.g. after the user swiped them in.
+   * Not set before the first inset dispatch.
+   */
+  systemBarsVisible?: boolean;
+}
+
+/**
+ * The window state last applied by the plugin.
+ */
+export interface WindowState {
+  /**
+   * Status bar color in ARGB format (e.g., "#FF000000")
+   */
+  statusBarColor?: string;
+  /**
+   * Navigation bar color in ARGB format (e.g., "#FF000000")
+   */
+  navigationBarColor?: string;
+  /**
+   * true for light status bar icons, false for dark icons
+   */
+  lightStatusBar?: boolean;
+  /**
+   * true for light navigation bar icons, false for dark icons
+   */
+  lightNavigationBar?: boolean;
+  /**
+   * Whether the navigation bar contrast is enforced
+   */
+  navigationBarContrastEnforced?: boolean;
+  /**
+   * How the system bars behave when they are hidden
+   */
+  systemBarsBehavior?: 'default' | 'showTransientBarsBySwipe';
+  /**
+   * Whether the system bars are hidden
+   */
+  immersive: boolean;
+  /**
+   * The system UI visibility flags set on the decor view (Android 10 and lower)
+   */
+  systemUiVisibility?: number;
 }
 
 /**
@@ -196,12 +566,35 @@ export interface SetKeyboardAnimationOptions {
    * true to enable keyboard animation, false to disable
    */
   enabled: boolean;
+  /**
+   * true to emit a keyboardAnimationProgress event on every animation frame
+   * Default: false, in applyBatch the current value is kept
+   */
+  emitProgress?: boolean;
+}
+
+/**
+ * Result for getting the cached keyboard height.
+ */
+export interface GetKeyboardHeightResult {
+  /**
+   * Last observed keyboard height in the current orientation, in physical pixels, or 0 if unknown
+   */
+  height: number;
+  /**
+   * Last observed keyboard height in portrait, in physical pixels, or 0 if unknown
+   */
+  portrait: number;
+  /**
+   * Last observed keyboard height in landscape, in physical pixels, or 0 if unknown
+   */
+  landscape: number;
 }
 
 /**
  * Options for comprehensive edge-to-edge configuration.
  */
-export interface ConfigureOptions {
+export interface ConfigureOptions extends AwaitFrameOptions {
   /**
    * true for light status bar icons (dark background), false for dark icons (light background)
    * Default: false
@@ -235,7 +628,7 @@ export interface ConfigureOptions {
 /**
  * Options for edge-to-edge configuration optimized for gesture navigation.
  */
-export interface ConfigureForGestureNavigationOptions {
+export interface ConfigureForGestureNavigationOptions extends AwaitFrameOptions {
   /**
    * true for light status bar icons (dark background), false for dark icons (light background)
    * Default: false
@@ -277,4 +670,339 @@ export interface SetConfigurationOptions {
   disableEdgeToEdgeForGesture?: boolean;
 }
 
+/**
+ * An operation of a batch. Each operation takes the same options as the plugin method it is named after.
+ */
+export type BatchOperation =
+  | { op: 'enable' }
+  | { op: 'disable' }
+  | ({ op: 'setStatusBarAppearance' } & SetStatusBarAppearanceOptions)
+  | ({ op: 'setNavigationBarAppearance' } & SetNavigationBarAppearanceOptions)
+  | ({ op: 'setStatusBarColor' } & SetStatusBarColorOptions)
+  | ({ op: 'setNavigationBarColor' } & SetNavigationBarColorOptions)
+  | ({ op: 'setNavigationBarContrastEnforced' } & SetNavigationBarContrastEnforcedOptions)
+  | { op: 'forceTransparentNavigationBar' }
+  | ({ op: 'enterImmersiveMode' } & EnterImmersiveModeOptions)
+  | { op: 'exitImmersiveMode' }
+  | ({ op: 'setImmersiveMode' } & SetImmersiveModeOptions)
+  | ({ op: 'setKeyboardAnimation' } & SetKeyboardAnimationOptions);
+
+/**
+ * Options for applying a batch of operations.
+ */
+export interface ApplyBatchOptions {
+  /**
+   * The operations to apply, in order
+   */
+  ops: BatchOperation[];
+}
 
+/**
+ * Outcome of a single batch operation.
+ */
+export interface BatchOperationResult {
+  /**
+   * The name of the operation
+   */
+  op: string;
+  /**
+   * Whether the operation was applied
+   */
+  success: boolean;
+  /**
+   * The reason the operation failed, if it did
+   */
+  error?: string;
+}
+
+/**
+ * Result for applying a batch of operations.
+ */
+export interface ApplyBatchResult {
+  /**
+   * One result per operation, in the same order as the operations
+   */
+  results: BatchOperationResult[];
+}
+
+/**
+ * Insets of a single type, in physical pixels.
+ */
+export interface Insets {
+  top: number;
+  left: number;
+  right: number;
+  bottom: number;
+}
+
+/**
+ * Event emitted when the window insets change.
+ */
+export interface InsetsChangedEvent {
+  /**
+   * Insets of the status bar, navigation bar and caption bar.
+   */
+  systemBars: Insets;
+  /**
+   * Insets of the display cutout.
+   */
+  displayCutout: Insets;
+  /**
+   * Insets of the software keyboard.
+   */
+  ime: Insets;
+  /**
+   * Insets of the areas claimed by system gestures.
+   */
+  systemGestures: Insets;
+  /**
+   * Whether the software keyboard is visible.
+   */
+  imeVisible: boolean;
+}
+
+/**
+ * Event emitted when the navigation mode changes.
+ */
+export interface NavigationModeChangedEvent {
+  /**
+   * Whether the device is using gesture navigation
+   */
+  isGestureNavigation: boolean;
+}
+
+/**
+ * Event emitted on every frame of a keyboard animation.
+ */
+export interface KeyboardAnimationProgressEvent {
+  /**
+   * Current height of the keyboard in physical pixels
+   */
+  height: number;
+  /**
+   * Interpolated progress of the animation, from 0 to 1
+   */
+  fraction: number;
+}
+
+/**
+ * Event emitted when the keyboard starts to show or hide.
+ */
+export interface KeyboardWillChangeEvent {
+  /**
+   * Target height of the keyboard in physical pixels, 0 when hiding
+   */
+  height: number;
+  /**
+   * Duration of the keyboard animation in milliseconds, 0 if the keyboard does not animate
+   */
+  durationMs: number;
+}
+
+/**
+ * Event emitted when the keyboard is fully shown or hidden.
+ */
+export interface KeyboardDidChangeEvent {
+  /**
+   * Height of the keyboard in physical pixels, 0 when hidden
+   */
+  height: number;
+}
+
+/**
+ * Options for methods that can wait for the change to be drawn.
+ */
+export interface AwaitFrameOptions {
+  /**
+   * Resolve only after the next frame has been drawn, with the timing of the call
+   * Default: false
+   */
+  awaitFrame?: boolean;
+}
+
+/**
+ * Timing of a call made with awaitFrame.
+ */
+export interface FrameTiming {
+  /**
+   * Time spent waiting for the UI thread, in milliseconds
+   */
+  waitMs: number;
+  /**
+   * Time spent applying the change on the UI thread, in milliseconds
+   */
+  applyMs: number;
+  /**
+   * Time from the end of the apply until the next frame was drawn, in milliseconds
+   */
+  drawMs: number;
+}
+
+/**
+ * Latency histogram with fixed buckets.
+ */
+export interface LatencyHistogram {
+  /**
+   * Number of recorded samples
+   */
+  count: number;
+  /**
+   * Sum of the recorded samples, in milliseconds
+   */
+  totalMs: number;
+  /**
+   * Largest recorded sample, in milliseconds
+   */
+  maxMs: number;
+  /**
+   * Number of samples per bucket, see bucketBoundsMs; the last bucket counts the samples above the last bound
+   */
+  buckets: number[];
+}
+
+/**
+ * Runtime counters and latency histograms of the plugin.
+ */
+export interface Metrics {
+  /**
+   * Whether the metrics are recorded
+   */
+  enabled: boolean;
+  /**
+   * Number of insets listener dispatches
+   */
+  insetsDispatches: number;
+  /**
+   * Number of insets listener dispatches that changed the layout of the web view
+   */
+  insetsLayoutChanges: number;
+  /**
+   * Number of layout params updates of the web view
+   */
+  layoutParamsUpdates: number;
+  /**
+   * Number of web view margin updates skipped because nothing changed
+   */
+  layoutParamsSkips: number;
+  /**
+   * Number of inset changes dropped during resize storms because a newer one replaced them
+   */
+  droppedInsetsDispatches: number;
+  /**
+   * Number of Window and system bar setter calls made, calls skipped because the value was already applied are not counted
+   */
+  windowSetterCalls: number;
+  /**
+   * Number of keyboard animation frames
+   */
+  keyboardAnimationFrames: number;
+  /**
+   * Time spent in configure()
+   */
+  configure: LatencyHistogram;
+  /**
+   * Time plugin calls waited for the UI thread
+   */
+  uiThreadHop: LatencyHistogram;
+  /**
+   * Time plugin calls waited for the UI thread, per method
+   */
+  uiThreadHopByMethod: { [method: string]: LatencyHistogram };
+  /**
+   * Upper bounds of the histogram buckets, in milliseconds
+   */
+  bucketBoundsMs: number[];
+}
+
+/**
+ * Options for entering immersive mode.
+ */
+export interface EnterImmersiveModeOptions extends AwaitFrameOptions {
+  /**
+   * How the system bars behave when they are hidden: "default" keeps revealed bars on screen,
+   * "showTransientBarsBySwipe" shows them transiently and lets the system hide them again
+   */
+  behavior?: 'default' | 'showTransientBarsBySwipe';
+  /**
+   * Hide the system bars again this many milliseconds after the user revealed them, 0 to keep them on screen.
+   * Kept until immersive mode is exited.
+   * Default: 0
+   */
+  autoHideDelayMs?: number;
+}
+
+/**
+ * Payload of the systemBarsVisibilityChanged event.
+ */
+export interface SystemBarsVisibilityChangedEvent {
+  /**
+   * Whether the system bars are on screen
+   */
+  visible: boolean;
+}
+
+/**
+ * Named combination of bar and inset settings. Settings that are not set are left untouched.
+ */
+export interface Profile {
+  /**
+   * Status bar color in ARGB format (e.g., "#FF000000" for opaque black)
+   */
+  statusBarColor?: string;
+  /**
+   * Navigation bar color in ARGB format (e.g., "#FF000000" for opaque black)
+   */
+  navigationBarColor?: string;
+  /**
+   * true for light status bar icons (dark background), false for dark icons (light background)
+   */
+  lightStatusBar?: boolean;
+  /**
+   * true for light navigation bar icons (dark background), false for dark icons (light background)
+   */
+  lightNavigationBar?: boolean;
+  /**
+   * true to enforce navigation bar contrast (translucent), false for transparent
+   */
+  enforceContrast?: boolean;
+  /**
+   * true to enter immersive mode (hide system bars), false to exit
+   */
+  immersive?: boolean;
+  /**
+   * true to animate the web view with the keyboard
+   */
+  keyboardAnimation?: boolean;
+  /**
+   * How the insets are applied to the web view
+   */
+  insetMode?: InsetMode;
+  /**
+   * How the software keyboard affects the web view
+   */
+  imeMode?: ImeMode;
+}
+
+/**
+ * Options for registering a profile.
+ */
+export interface RegisterProfileOptions {
+  /**
+   * Id of the profile
+   */
+  id: string;
+  /**
+   * Settings of the profile
+   */
+  profile: Profile;
+}
+
+/**
+ * Options for applying a profile.
+ */
+export interface ApplyProfileOptions extends AwaitFrameOptions {
+  /**
+   * Id of the profile
+   */
+  id: string;
+}